@@ -0,0 +1,57 @@
+package com.tcc.edlaine.crosscutting.utils;
+
+import com.tcc.edlaine.domain.entities.UserEntity;
+import com.tcc.edlaine.domain.enums.PermissionLevel;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Emissão no login e verificação em toda requisição autenticada
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider cachedProvider;
+    private JwtTokenProvider uncachedProvider;
+    private UserEntity user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedProvider = new JwtTokenProvider(10_000, new SimpleMeterRegistry());
+        uncachedProvider = new JwtTokenProvider(0, new SimpleMeterRegistry()); // Sempre verifica a assinatura
+        user = new UserEntity("User Admin", "33333333333", "admin@gmail.com", "hash", PermissionLevel.ADMIN, true);
+        user.setId("65f1c2a9e4b0a1b2c3d4e5f6");
+        token = cachedProvider.generateToken(user);
+        cachedProvider.parseClaims(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedProvider.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims parseCachedToken() {
+        return cachedProvider.parseClaims(token);
+    }
+
+    @Benchmark
+    public Claims parseUncachedToken() {
+        return uncachedProvider.parseClaims(token);
+    }
+
+    @Benchmark
+    public Claims generateAndParse() {
+        return uncachedProvider.parseClaims(uncachedProvider.generateToken(user));
+    }
+}
@@ -0,0 +1,134 @@
+package com.tcc.edlaine.domain.entities;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// (De)serialização do documento e de uma página do histórico (versões e compartilhamentos),
+// tanto no caminho BSON do Spring Data quanto no JSON devolvido pelos controllers
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DocumentSerializationBenchmark {
+
+    private static final TypeReference<List<FileVersion>> VERSION_LIST = new TypeReference<>() {
+    };
+
+    @Param({"10", "200", "1000"})
+    private int historySize;
+
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private MappingMongoConverter converter;
+    private ObjectMapper objectMapper;
+
+    private DocumentEntity document;
+    private List<FileVersion> versions;
+    private List<SharedRecord> shares;
+
+    private RawBsonDocument documentBson;
+    private List<RawBsonDocument> versionsBson;
+    private String documentJson;
+    private String versionsJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+        document = new DocumentEntity("relatorio-anual.pdf", "owner@gmail.com", "PUBLIC");
+        versions = new ArrayList<>(historySize);
+        shares = new ArrayList<>(historySize);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < historySize; i++) {
+            String fileId = String.format("%024x", i);
+            versions.add(document.addVersion(fileId, "relatorio-anual-v" + i + ".pdf", now.plusMinutes(i), "%064x".formatted(i)));
+            shares.add(document.shareWithEmail("guest" + i + "@gmail.com", "owner@gmail.com"));
+        }
+
+        documentBson = toBson(document);
+        versionsBson = versions.stream().map(this::toBson).toList();
+        documentJson = objectMapper.writeValueAsString(document);
+        versionsJson = objectMapper.writeValueAsString(versions);
+    }
+
+    @Benchmark
+    public RawBsonDocument writeDocumentBson() {
+        return toBson(document);
+    }
+
+    @Benchmark
+    public DocumentEntity readDocumentBson() {
+        return converter.read(DocumentEntity.class, documentBson.decode(documentCodec));
+    }
+
+    @Benchmark
+    public List<RawBsonDocument> writeVersionsBson() {
+        return versions.stream().map(this::toBson).toList();
+    }
+
+    @Benchmark
+    public List<FileVersion> readVersionsBson() {
+        return versionsBson.stream()
+                .map(raw -> converter.read(FileVersion.class, raw.decode(documentCodec)))
+                .toList();
+    }
+
+    @Benchmark
+    public List<RawBsonDocument> writeSharesBson() {
+        return shares.stream().map(this::toBson).toList();
+    }
+
+    @Benchmark
+    public String writeDocumentJson() throws Exception {
+        return objectMapper.writeValueAsString(document);
+    }
+
+    @Benchmark
+    public DocumentEntity readDocumentJson() throws Exception {
+        return objectMapper.readValue(documentJson, DocumentEntity.class);
+    }
+
+    @Benchmark
+    public String writeVersionsJson() throws Exception {
+        return objectMapper.writeValueAsString(versions);
+    }
+
+    @Benchmark
+    public List<FileVersion> readVersionsJson() throws Exception {
+        return objectMapper.readValue(versionsJson, VERSION_LIST);
+    }
+
+    @Benchmark
+    public String writeSharesJson() throws Exception {
+        return objectMapper.writeValueAsString(shares);
+    }
+
+    // Mapeamento da entidade + codificação em bytes, como no envio ao servidor
+    private RawBsonDocument toBson(Object entity) {
+        Document target = new Document();
+        converter.write(entity, target);
+        return new RawBsonDocument(target, documentCodec);
+    }
+}
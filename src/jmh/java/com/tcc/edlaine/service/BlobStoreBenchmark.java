@@ -0,0 +1,125 @@
+package com.tcc.edlaine.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Vazão dos backends de armazenamento (GridFS embarcado x sistema de arquivos local): ops/s x fileSize = bytes/s
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BlobStoreBenchmark {
+
+    private static final int RANGE_LENGTH = 64 * 1024;
+
+    @Param({GridFsBlobStore.NAME, FileSystemBlobStore.NAME})
+    private String backend;
+
+    @Param({"65536", "1048576", "16777216"})
+    private int fileSize;
+
+    private TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private MongoClient mongoClient;
+    private Path root;
+    private BlobStore blobStore;
+
+    private byte[] content;
+    private String storedBlobId;
+    private final Queue<String> savedBlobIds = new ConcurrentLinkedQueue<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (GridFsBlobStore.NAME.equals(backend)) {
+            mongod = Mongod.instance().start(Version.Main.V7_0);
+            mongoClient = MongoClients.create("mongodb://" + mongod.current().getServerAddress());
+            MongoTemplate mongoTemplate = new MongoTemplate(mongoClient, "jmh");
+            GridFsTemplate gridFsTemplate = new GridFsTemplate(mongoTemplate.getMongoDatabaseFactory(), mongoTemplate.getConverter());
+            blobStore = new GridFsBlobStore(GridFSBuckets.create(mongoTemplate.getDb()), gridFsTemplate);
+        } else {
+            root = Files.createTempDirectory("jmh-blob-store");
+            blobStore = new FileSystemBlobStore(root);
+        }
+
+        content = new byte[fileSize];
+        ThreadLocalRandom.current().nextBytes(content);
+        storedBlobId = new ObjectId().toHexString();
+        blobStore.save(storedBlobId, "benchmark.pdf", new ByteArrayInputStream(content));
+    }
+
+    // Apaga os blobs gravados na iteração para não acumular gigabytes em disco / no Mongo embarcado
+    @TearDown(Level.Iteration)
+    public void deleteSavedBlobs() throws IOException {
+        for (String blobId; (blobId = savedBlobIds.poll()) != null; ) {
+            blobStore.delete(blobId);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (mongoClient != null) {
+            mongoClient.close();
+            mongod.close();
+        }
+        if (root != null) {
+            FileSystemUtils.deleteRecursively(root);
+        }
+    }
+
+    @Benchmark
+    public long save() throws IOException {
+        String blobId = new ObjectId().toHexString();
+        long length = blobStore.save(blobId, "benchmark.pdf", new ByteArrayInputStream(content));
+        savedBlobIds.add(blobId);
+        return length;
+    }
+
+    @Benchmark
+    public long readWhole() throws IOException {
+        try (InputStream inputStream = blobStore.open(storedBlobId, 0)) {
+            return inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    // Trecho do meio do arquivo, como num download com Range
+    @Benchmark
+    public int readRange() throws IOException {
+        try (InputStream inputStream = blobStore.open(storedBlobId, Math.max(0, fileSize / 2 - RANGE_LENGTH))) {
+            return inputStream.readNBytes(RANGE_LENGTH).length;
+        }
+    }
+
+    @Benchmark
+    public boolean stat() throws IOException {
+        return blobStore.stat(List.of(storedBlobId)).containsKey(storedBlobId);
+    }
+}
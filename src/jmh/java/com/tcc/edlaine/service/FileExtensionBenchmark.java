@@ -0,0 +1,54 @@
+package com.tcc.edlaine.service;
+
+import com.tcc.edlaine.crosscutting.exceptions.file.FileUnprocessableEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Validação de extensão executada em todo upload/update (regex sobre o nome do arquivo)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FileExtensionBenchmark {
+
+    @Param({"short", "long", "invalid"})
+    private String kind;
+
+    private String fileName;
+
+    @Setup
+    public void setUp() {
+        fileName = switch (kind) {
+            case "short" -> "relatorio.pdf";
+            case "long" -> "relatorio-financeiro-".repeat(12) + "2024.final.revisado.xlsx";
+            default -> "instalador-" + "x".repeat(64) + ".exe";
+        };
+    }
+
+    @Benchmark
+    public String getFileExtension() {
+        try {
+            return FileService.getFileExtension(fileName);
+        } catch (FileUnprocessableEntity e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public void validateFileExtension(Blackhole blackhole) {
+        try {
+            FileService.validateFileExtension(fileName);
+            blackhole.consume(true);
+        } catch (FileUnprocessableEntity e) {
+            blackhole.consume(e);
+        }
+    }
+}
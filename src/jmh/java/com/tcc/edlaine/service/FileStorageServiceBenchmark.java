@@ -0,0 +1,115 @@
+package com.tcc.edlaine.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.tcc.edlaine.domain.dto.StoredFile;
+import com.tcc.edlaine.domain.entities.BlobEntity;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Gravação (hash + chunks + deduplicação) e leitura de blobs no GridFS de um Mongo embarcado
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FileStorageServiceBenchmark {
+
+    @Param({"65536", "1048576", "16777216"})
+    private int fileSize;
+
+    private TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private FileStorageService fileStorageService;
+
+    private byte[] content;
+    private String storedFileId;
+    private long uniqueCounter;
+    private final List<String> uniqueFileIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mongod = Mongod.instance().start(Version.Main.V7_0);
+        mongoClient = MongoClients.create("mongodb://" + mongod.current().getServerAddress());
+        mongoTemplate = new MongoTemplate(mongoClient, "jmh");
+        mongoTemplate.indexOps(BlobEntity.class).ensureIndex(new Index("contentHash", Sort.Direction.ASC).unique());
+
+        GridFSBucket gridFSBucket = GridFSBuckets.create(mongoTemplate.getDb());
+        GridFsTemplate gridFsTemplate = new GridFsTemplate(mongoTemplate.getMongoDatabaseFactory(), mongoTemplate.getConverter());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BlobDiskCache blobDiskCache = new BlobDiskCache(meterRegistry, false, Path.of("build", "jmh-blob-cache"),
+                DataSize.ofGigabytes(1), DataSize.ofMegabytes(100));
+        fileStorageService = new FileStorageService(List.of(new GridFsBlobStore(gridFSBucket, gridFsTemplate)), GridFsBlobStore.NAME,
+                mongoTemplate, new FileMetrics(meterRegistry), blobDiskCache);
+
+        content = new byte[fileSize];
+        ThreadLocalRandom.current().nextBytes(content);
+        storedFileId = fileStorageService.saveFile("benchmark.pdf", new ByteArrayInputStream(content)).getFileId();
+    }
+
+    // Libera os blobs inéditos gravados na iteração para não acumular gigabytes no Mongo embarcado
+    @TearDown(Level.Iteration)
+    public void releaseUniqueFiles() {
+        uniqueFileIds.forEach(fileStorageService::releaseFile);
+        uniqueFileIds.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mongoClient.close();
+        mongod.close();
+    }
+
+    // Conteúdo inédito a cada chamada: grava o blob inteiro e registra a referência
+    @Benchmark
+    public StoredFile saveUniqueFile() throws IOException {
+        byte[] unique = content.clone();
+        ByteBuffer.wrap(unique).putLong(++uniqueCounter);
+        StoredFile storedFile = fileStorageService.saveFile("benchmark.pdf", new ByteArrayInputStream(unique));
+        uniqueFileIds.add(storedFile.getFileId());
+        return storedFile;
+    }
+
+    // Conteúdo repetido: grava, detecta o hash existente e descarta a cópia
+    @Benchmark
+    public StoredFile saveDuplicatedFile() throws IOException {
+        return fileStorageService.saveFile("benchmark.pdf", new ByteArrayInputStream(content));
+    }
+
+    @Benchmark
+    public long getFile() throws IOException {
+        try (InputStream inputStream = fileStorageService.getFile(storedFileId).getInputStream()) {
+            return inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
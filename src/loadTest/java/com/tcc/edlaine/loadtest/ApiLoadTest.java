@@ -0,0 +1,151 @@
+package com.tcc.edlaine.loadtest;
+
+import com.tcc.edlaine.domain.entities.UserEntity;
+import com.tcc.edlaine.loadtest.LoadTestSettings.Operation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Sobe a aplicação contra Mongo (flapdoodle) e SMTP (GreenMail) embarcados e dispara o mix de operações
+// com N clientes concorrentes; o relatório fica em build/reports/loadtest
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ApiLoadTest extends EmbeddedInfrastructureLoadTest {
+
+    private static final long MULTIPART_LIMIT = 10 * 1024 * 1024; // spring.servlet.multipart.max-file-size
+
+    @Autowired
+    private LoadTestFixtures fixtures;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void measuresThroughputAndLatencyPerOperation() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        LoadTestWorkload workload = new LoadTestWorkload(settings);
+
+        List<UserEntity> users = fixtures.seedUsers(settings.users());
+        List<String> documentIds = fixtures.seedDocuments(settings.documents(), users, workload);
+        List<String> tokens = new ArrayList<>(users.size());
+        for (UserEntity user : users) {
+            tokens.add(login(httpClient, user.getEmail()).body());
+        }
+
+        LatencyReport warmupReport = new LatencyReport();
+        LatencyReport report = new LatencyReport();
+        long warmupEnd = System.nanoTime() + settings.warmup().toNanos();
+        long end = warmupEnd + settings.duration().toNanos();
+
+        List<Callable<Void>> clients = new ArrayList<>();
+        for (int i = 0; i < settings.concurrency(); i++) {
+            clients.add(() -> {
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                    LatencyReport target = now < warmupEnd ? warmupReport : report;
+                    int userIndex = ThreadLocalRandom.current().nextInt(users.size());
+                    Operation operation = workload.nextOperation();
+
+                    long startedAt = System.nanoTime();
+                    try {
+                        int status = execute(operation, users.get(userIndex), tokens.get(userIndex), documentIds, workload);
+                        if (status >= 200 && status < 300) {
+                            target.recordSuccess(operation, System.nanoTime() - startedAt);
+                        } else {
+                            target.recordError(operation);
+                        }
+                    } catch (IOException e) {
+                        target.recordError(operation);
+                    }
+                }
+                return null;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(settings.concurrency());
+        try {
+            for (Future<Void> client : executor.invokeAll(clients)) {
+                client.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.printf("%nLoad test: %d users, %d documents, %d clients, %s measured%n",
+                settings.users(), settings.documents(), settings.concurrency(), settings.duration());
+        report.write(settings.reportDir(), settings.duration(), System.out);
+        System.out.printf("Share e-mails delivered to the SMTP stub: %d%n", greenMail.getReceivedMessages().length);
+
+        long total = report.totalRequests();
+        assertTrue(total > 0, "No request completed during the measured window");
+        assertTrue((double) report.totalErrors() / total <= settings.maxErrorRate(),
+                "Error rate above " + settings.maxErrorRate() + ": " + report.totalErrors() + "/" + total);
+    }
+
+    private int execute(Operation operation, UserEntity user, String token, List<String> documentIds,
+                        LoadTestWorkload workload) throws IOException, InterruptedException {
+        String documentId = documentIds.get(ThreadLocalRandom.current().nextInt(documentIds.size()));
+
+        return switch (operation) {
+            case LOGIN -> login(httpClient, user.getEmail()).statusCode();
+            case ME -> send(authorized(token, "/auth/me").GET());
+            case LIST_USERS -> send(authorized(token, "/users/?size=50").GET());
+            case LIST_FILES -> send(authorized(token, "/files/all-files?size=50").GET());
+            case DOWNLOAD -> send(authorized(token, "/files/download/" + documentId).GET());
+            case SHARE -> send(authorized(token, "/files/share/" + documentId + "?email=" + encode("guest." + UUID.randomUUID() + "@loadtest.local"))
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+            case UPLOAD -> upload(token, workload.randomContent());
+        };
+    }
+
+    // Até o limite do multipart usa /files/upload; acima dele, o upload em streaming
+    private int upload(String token, byte[] content) throws IOException, InterruptedException {
+        String fileName = "carga-" + UUID.randomUUID() + ".pdf";
+        if (content.length > MULTIPART_LIMIT) {
+            return send(authorized(token, "/files/upload-stream?type=PUBLIC&fileName=" + encode(fileName))
+                    .header("Content-Type", "application/octet-stream")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(content)));
+        }
+
+        String boundary = "loadtest-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(content.length + 512);
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(content);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        return send(authorized(token, "/files/upload?type=PUBLIC")
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray())));
+    }
+
+    private HttpRequest.Builder authorized(String token, String path) {
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(Duration.ofMinutes(1))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    // Corpo descartado: mede o tempo até o último byte sem guardar a resposta
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,115 @@
+package com.tcc.edlaine.loadtest;
+
+import com.tcc.edlaine.domain.entities.UserEntity;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Abre N downloads de um arquivo grande e segura todos com clientes lentos (lêem 1 byte e param),
+ * o que deixa o servidor bloqueado na escrita do socket. Mede o pico de downloads simultâneos
+ * (gauge file.downloads.in.flight), de threads de plataforma e de heap, e estima a memória por conexão.
+ * As subclasses rodam o mesmo cenário com e sem spring.threads.virtual.enabled.
+ */
+abstract class DownloadConcurrencyLoadTest extends EmbeddedInfrastructureLoadTest {
+
+    @Autowired
+    private LoadTestFixtures fixtures;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    protected abstract String mode();
+
+    @Test
+    void measuresConcurrentDownloadsAndMemoryPerConnection() throws Exception {
+        int clients = Integer.getInteger("loadtest.download.clients", 1000);
+        DataSize fileSize = DataSize.parse(System.getProperty("loadtest.download.size", "8MB"));
+        Duration hold = Duration.parse("PT" + System.getProperty("loadtest.download.hold", "15s"));
+        DataSize threadStackSize = DataSize.parse(System.getProperty("loadtest.thread-stack-size", "1MB"));
+
+        UserEntity user = fixtures.seedUsers(1).get(0);
+        byte[] content = new byte[Math.toIntExact(fileSize.toBytes())];
+        ThreadLocalRandom.current().nextBytes(content);
+        String documentId = fixtures.seedDocument(user, "download-concorrente.pdf", content);
+        String token = login(httpClient, user.getEmail()).body();
+
+        Gauge inFlight = meterRegistry.get("file.downloads.in.flight").gauge();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        long baselineHeap = memory.getHeapMemoryUsage().getUsed();
+        int baselineThreads = threads.getThreadCount();
+
+        double peakInFlight = 0;
+        long peakHeap = baselineHeap;
+        int peakThreads = baselineThreads;
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Clientes em virtual threads nos dois modos: o lado cliente não pode ser o gargalo
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpRequest request = HttpRequest.newBuilder(uri("/files/download/" + documentId))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build();
+            for (int i = 0; i < clients; i++) {
+                clientThreads.submit(() -> {
+                    HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                    try (InputStream body = response.body()) {
+                        body.read();
+                        release.await();
+                    }
+                    return null;
+                });
+            }
+
+            long end = System.nanoTime() + hold.toNanos();
+            while (System.nanoTime() < end) {
+                peakInFlight = Math.max(peakInFlight, inFlight.value());
+                peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+                peakThreads = Math.max(peakThreads, threads.getThreadCount());
+                Thread.sleep(200);
+            }
+            release.countDown();
+        }
+
+        long heapDelta = peakHeap - baselineHeap;
+        long stackDelta = (long) (peakThreads - baselineThreads) * threadStackSize.toBytes();
+        double bytesPerConnection = peakInFlight == 0 ? 0 : (heapDelta + stackDelta) / peakInFlight;
+
+        String json = String.format(Locale.ROOT,
+                "{\"mode\": \"%s\", \"clients\": %d, \"fileSizeBytes\": %d, \"peakInFlightDownloads\": %.0f, "
+                        + "\"platformThreadsDelta\": %d, \"heapDeltaBytes\": %d, \"estimatedBytesPerConnection\": %.0f}%n",
+                mode(), clients, fileSize.toBytes(), peakInFlight, peakThreads - baselineThreads, heapDelta, bytesPerConnection);
+        Path reportDir = LoadTestSettings.fromSystemProperties().reportDir();
+        Files.createDirectories(reportDir);
+        Files.writeString(reportDir.resolve("download-concurrency-" + mode() + ".json"), json);
+        System.out.print(json);
+
+        assertTrue(peakInFlight > 0, "No download reached the server");
+    }
+}
@@ -0,0 +1,66 @@
+package com.tcc.edlaine.loadtest;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+// Mongo (flapdoodle) e SMTP (GreenMail) embarcados, compartilhados pelos testes de carga;
+// o restante da configuração está em application-loadtest.properties
+@ActiveProfiles("loadtest")
+@DirtiesContext
+abstract class EmbeddedInfrastructureLoadTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+
+    // Um único mongod por JVM, parado só no shutdown (depois dos contextos Spring); um banco por classe
+    @DynamicPropertySource
+    static synchronized void mongoProperties(DynamicPropertyRegistry registry) {
+        if (mongod == null) {
+            mongod = Mongod.instance().start(Version.Main.V7_0);
+            Runtime.getRuntime().addShutdownHook(new Thread(mongod::close));
+        }
+        String database = "loadtest-" + UUID.randomUUID();
+        registry.add("spring.data.mongodb.uri", () -> "mongodb://" + mongod.current().getServerAddress() + "/" + database);
+    }
+
+    @LocalServerPort
+    protected int port;
+
+    protected HttpResponse<String> login(HttpClient httpClient, String email) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri("/auth/login?email=" + encode(email) + "&password=" + encode(LoadTestFixtures.PASSWORD)))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    protected URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    protected static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,88 @@
+package com.tcc.edlaine.loadtest;
+
+import com.tcc.edlaine.loadtest.LoadTestSettings.Operation;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histograma de latência (HdrHistogram, em microssegundos) e contagem de erros por operação
+class LatencyReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void recordSuccess(Operation operation, long elapsedNanos) {
+        histograms.get(operation).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), MAX_LATENCY_MICROS));
+    }
+
+    void recordError(Operation operation) {
+        errors.get(operation).increment();
+    }
+
+    long totalRequests() {
+        return histograms.values().stream().mapToLong(Histogram::getTotalCount).sum() + totalErrors();
+    }
+
+    long totalErrors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    // Tabela no console + summary.json (máquina) + <operação>.hgrm (distribuição completa, em ms)
+    void write(Path reportDir, Duration measured, PrintStream console) throws IOException {
+        Files.createDirectories(reportDir);
+        double seconds = measured.toMillis() / 1000.0;
+
+        StringBuilder json = new StringBuilder("{\n  \"durationSeconds\": ").append(seconds).append(",\n  \"operations\": {");
+        console.printf("%-12s %10s %8s %10s %10s %10s %10s %10s%n", "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+
+        String separator = "\n";
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            long count = histogram.getTotalCount();
+            long errorCount = errors.get(operation).sum();
+            if (count + errorCount == 0) {
+                continue;
+            }
+
+            double throughput = count / seconds;
+            console.printf(Locale.ROOT, "%-12s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n", operation, count, errorCount, throughput,
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), histogram.getMaxValue() / 1000.0);
+
+            json.append(separator).append(String.format(Locale.ROOT,
+                    "    \"%s\": {\"requests\": %d, \"errors\": %d, \"throughput\": %.2f, \"p50Ms\": %.3f, \"p90Ms\": %.3f, \"p99Ms\": %.3f, \"maxMs\": %.3f}",
+                    operation, count, errorCount, throughput,
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), histogram.getMaxValue() / 1000.0));
+            separator = ",\n";
+
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(reportDir.resolve(operation.name().toLowerCase() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+
+        json.append("\n  }\n}\n");
+        Files.writeString(reportDir.resolve("summary.json"), json);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,82 @@
+package com.tcc.edlaine.loadtest;
+
+import com.tcc.edlaine.domain.dto.StoredFile;
+import com.tcc.edlaine.domain.entities.DocumentEntity;
+import com.tcc.edlaine.domain.entities.FileVersion;
+import com.tcc.edlaine.domain.entities.UserEntity;
+import com.tcc.edlaine.domain.enums.DocumentType;
+import com.tcc.edlaine.domain.enums.PermissionLevel;
+import com.tcc.edlaine.repository.DocumentRepository;
+import com.tcc.edlaine.repository.FileVersionRepository;
+import com.tcc.edlaine.repository.UserRepository;
+import com.tcc.edlaine.service.FileStorageService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Massa de dados no estilo do Bootstrapping: usuários e documentos gravados direto nos repositórios
+@Component
+class LoadTestFixtures {
+
+    static final String PASSWORD = "loadtest123";
+
+    private final UserRepository userRepository;
+    private final DocumentRepository documentRepository;
+    private final FileVersionRepository fileVersionRepository;
+    private final FileStorageService fileStorageService;
+    private final PasswordEncoder passwordEncoder;
+
+    LoadTestFixtures(UserRepository userRepository,
+                     DocumentRepository documentRepository,
+                     FileVersionRepository fileVersionRepository,
+                     FileStorageService fileStorageService,
+                     PasswordEncoder passwordEncoder) {
+        this.userRepository = userRepository;
+        this.documentRepository = documentRepository;
+        this.fileVersionRepository = fileVersionRepository;
+        this.fileStorageService = fileStorageService;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    // Um único hash BCrypt reaproveitado por todos os usuários: o seed não deve dominar o tempo do teste
+    List<UserEntity> seedUsers(int count) {
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<UserEntity> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new UserEntity("Load User " + i, "%011d".formatted(i), "load.user" + i + "@gmail.com",
+                    passwordHash, PermissionLevel.ADMIN, true));
+        }
+        return userRepository.insert(users);
+    }
+
+    List<String> seedDocuments(int count, List<UserEntity> owners, LoadTestWorkload workload) throws IOException {
+        List<DocumentEntity> documents = new ArrayList<>(count);
+        List<FileVersion> versions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String fileName = "documento-" + i + ".pdf";
+            StoredFile storedFile = fileStorageService.saveFile(fileName, new ByteArrayInputStream(workload.randomContent()));
+
+            UserEntity owner = owners.get(ThreadLocalRandom.current().nextInt(owners.size()));
+            DocumentEntity document = new DocumentEntity(fileName, owner.getEmail(), DocumentType.PUBLIC.name());
+            versions.add(document.addVersion(storedFile.getFileId(), fileName, LocalDateTime.now(), storedFile.getContentHash()));
+            documents.add(document);
+        }
+
+        fileVersionRepository.insert(versions);
+        documentRepository.insert(documents);
+        return documents.stream().map(DocumentEntity::getId).toList();
+    }
+
+    String seedDocument(UserEntity owner, String fileName, byte[] content) throws IOException {
+        StoredFile storedFile = fileStorageService.saveFile(fileName, new ByteArrayInputStream(content));
+        DocumentEntity document = new DocumentEntity(fileName, owner.getEmail(), DocumentType.PUBLIC.name());
+        fileVersionRepository.insert(document.addVersion(storedFile.getFileId(), fileName, LocalDateTime.now(), storedFile.getContentHash()));
+        return documentRepository.insert(document).getId();
+    }
+}
@@ -0,0 +1,51 @@
+package com.tcc.edlaine.loadtest;
+
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+// Parâmetros do teste de carga, lidos das system properties loadtest.* (repassadas pelo Gradle com -P)
+record LoadTestSettings(int users,
+                        int documents,
+                        int concurrency,
+                        Duration warmup,
+                        Duration duration,
+                        Map<DataSize, Integer> fileSizeMix,
+                        Map<Operation, Integer> operationMix,
+                        double maxErrorRate,
+                        Path reportDir) {
+
+    enum Operation {
+        LOGIN, ME, LIST_USERS, LIST_FILES, UPLOAD, DOWNLOAD, SHARE
+    }
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.users", 50),
+                Integer.getInteger("loadtest.documents", 500),
+                Integer.getInteger("loadtest.concurrency", 16),
+                Duration.parse("PT" + System.getProperty("loadtest.warmup", "10s")),
+                Duration.parse("PT" + System.getProperty("loadtest.duration", "60s")),
+                parseMix(System.getProperty("loadtest.file-sizes", "16KB:60,256KB:30,4MB:10"), DataSize::parse),
+                parseMix(System.getProperty("loadtest.operations",
+                                "login:2,me:8,list_users:5,list_files:30,upload:10,download:35,share:10"),
+                        name -> Operation.valueOf(name.toUpperCase())),
+                Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01")),
+                Path.of(System.getProperty("loadtest.report-dir", "build/reports/loadtest"))
+        );
+    }
+
+    // "chave:peso,chave:peso" -> pesos na ordem declarada
+    private static <K> Map<K, Integer> parseMix(String value, Function<String, K> keyParser) {
+        Map<K, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            mix.put(keyParser.apply(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+}
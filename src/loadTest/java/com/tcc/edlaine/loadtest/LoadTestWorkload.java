@@ -0,0 +1,47 @@
+package com.tcc.edlaine.loadtest;
+
+import com.tcc.edlaine.loadtest.LoadTestSettings.Operation;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sorteio ponderado de operações e tamanhos de arquivo segundo os mixes configurados
+class LoadTestWorkload {
+
+    private final List<Operation> operations = new ArrayList<>();
+    private final List<byte[]> templates = new ArrayList<>();
+    private final AtomicLong uniqueCounter = new AtomicLong();
+
+    LoadTestWorkload(LoadTestSettings settings) {
+        for (Map.Entry<Operation, Integer> entry : settings.operationMix().entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                operations.add(entry.getKey());
+            }
+        }
+
+        // Um conteúdo aleatório por tamanho, gerado uma vez; cada uso troca só os primeiros bytes
+        for (Map.Entry<DataSize, Integer> entry : settings.fileSizeMix().entrySet()) {
+            byte[] template = new byte[Math.toIntExact(entry.getKey().toBytes())];
+            ThreadLocalRandom.current().nextBytes(template);
+            for (int i = 0; i < entry.getValue(); i++) {
+                templates.add(template);
+            }
+        }
+    }
+
+    Operation nextOperation() {
+        return operations.get(ThreadLocalRandom.current().nextInt(operations.size()));
+    }
+
+    // Conteúdo inédito para não cair na deduplicação do FileStorageService
+    byte[] randomContent() {
+        byte[] content = templates.get(ThreadLocalRandom.current().nextInt(templates.size())).clone();
+        ByteBuffer.wrap(content).putLong(uniqueCounter.incrementAndGet());
+        return content;
+    }
+}
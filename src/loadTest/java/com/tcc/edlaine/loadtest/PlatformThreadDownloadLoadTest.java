@@ -0,0 +1,13 @@
+package com.tcc.edlaine.loadtest;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadDownloadLoadTest extends DownloadConcurrencyLoadTest {
+
+    @Override
+    protected String mode() {
+        return "platform";
+    }
+}
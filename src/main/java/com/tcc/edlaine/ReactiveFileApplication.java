@@ -0,0 +1,42 @@
+package com.tcc.edlaine;
+
+import com.tcc.edlaine.controller.ReactiveFileController;
+import com.tcc.edlaine.crosscutting.config.ReactiveSecurityConfig;
+import com.tcc.edlaine.crosscutting.utils.JwtTokenProvider;
+import com.tcc.edlaine.crosscutting.utils.TokenRevocationRegistry;
+import com.tcc.edlaine.service.FileSystemBlobStore;
+import com.tcc.edlaine.service.ReactiveFileService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Entrada da API de arquivos reativa (WebFlux + driver reativo do Mongo), em processo separado
+ * da aplicação MVC: ./gradlew bootRunReactive. Só os beans importados aqui sobem; o perfil
+ * "reactive" impede que o component scan da TccEdlaineBsiApplication carregue esta configuração.
+ */
+@Profile("reactive")
+@Configuration(proxyBeanMethods = false)
+@EnableAutoConfiguration
+@EnableScheduling
+@Import({
+        JwtTokenProvider.class,
+        TokenRevocationRegistry.class,
+        ReactiveSecurityConfig.class,
+        ReactiveFileService.class,
+        FileSystemBlobStore.class,
+        ReactiveFileController.class
+})
+public class ReactiveFileApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveFileApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+}
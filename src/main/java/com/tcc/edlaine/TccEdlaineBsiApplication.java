@@ -3,9 +3,13 @@ package com.tcc.edlaine;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableMongoRepositories(basePackages = "com.tcc.edlaine.repository")
+@EnableScheduling
+@EnableAsync
 public class TccEdlaineBsiApplication {
 
 	public static void main(String[] args) {
@@ -40,8 +40,10 @@ public class AuthController {
 
     @GetMapping("/me")
     public ResponseEntity<Map<String, Object>> getUserInfo(@RequestHeader("Authorization") String token) {
-        token = token.replace("Bearer ", "");
-        Claims claims = jwtTokenProvider.getClaims(token);
+        Claims claims = JwtTokenProvider.getAuthenticatedClaims();
+        if (claims == null) {
+            claims = jwtTokenProvider.getClaims(token.replace("Bearer ", ""));
+        }
 
         Map<String, Object> response = new HashMap<>();
         response.put("email", claims.getSubject());
@@ -1,18 +1,32 @@
 package com.tcc.edlaine.controller;
 
+import com.tcc.edlaine.domain.dto.BatchUploadItem;
+import com.tcc.edlaine.domain.dto.CursorPage;
+import com.tcc.edlaine.domain.dto.DocumentSearchHit;
+import com.tcc.edlaine.domain.dto.DocumentSummary;
 import com.tcc.edlaine.domain.dto.FileJson;
 import com.tcc.edlaine.domain.entities.DocumentEntity;
 import com.tcc.edlaine.domain.entities.FileVersion;
 import com.tcc.edlaine.domain.entities.SharedRecord;
+import com.tcc.edlaine.domain.enums.DocumentType;
+import com.tcc.edlaine.service.BatchUploadService;
+import com.tcc.edlaine.service.DocumentSearchService;
 import com.tcc.edlaine.service.FileService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @Slf4j
@@ -22,6 +36,8 @@ import java.util.List;
 public class FileController {
 
     private final FileService fileService;
+    private final BatchUploadService batchUploadService;
+    private final DocumentSearchService documentSearchService;
 
     @ResponseStatus(HttpStatus.OK)
     @PostMapping("/upload")
@@ -30,6 +46,22 @@ public class FileController {
         return fileService.uploadFile(file, type);
     }
 
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping(value = "/upload-stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<FileJson> uploadStream(HttpServletRequest request,
+                                                 @RequestParam String fileName,
+                                                 @RequestParam String type) throws IOException {
+        return fileService.uploadFileStream(request.getInputStream(), fileName, type);
+    }
+
+    // Vários arquivos (ou ZIPs, expandidos no servidor) com o mesmo tipo; resultado individual por arquivo
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping(value = "/upload-batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<List<BatchUploadItem>> uploadBatch(@RequestParam("files") List<MultipartFile> files,
+                                                             @RequestParam String type) {
+        return batchUploadService.uploadFiles(files, type);
+    }
+
     @ResponseStatus(HttpStatus.OK)
     @PostMapping("/share/{documentId}")
     public ResponseEntity<FileJson> shareFileByEmail(@PathVariable String documentId,
@@ -44,47 +76,92 @@ public class FileController {
         return fileService.updateFile(file, documentId);
     }
 
+    @ResponseStatus(HttpStatus.OK)
+    @PostMapping(value = "/upload-stream/{documentId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<FileJson> updateDocumentStreamById(HttpServletRequest request,
+                                                             @RequestParam String fileName,
+                                                             @PathVariable String documentId) throws IOException {
+        return fileService.updateFileStream(request.getInputStream(), fileName, documentId);
+    }
+
     @ResponseStatus(HttpStatus.OK)
     @GetMapping("/share-history/{documentId}")
-    public ResponseEntity<List<SharedRecord>> getShareHistory(@PathVariable String documentId) {
-        return fileService.getShareHistory(documentId);
+    public ResponseEntity<CursorPage<SharedRecord>> getShareHistory(@PathVariable String documentId,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer size) {
+        return fileService.getShareHistory(documentId, cursor, size);
     }
 
     @ResponseStatus(HttpStatus.OK)
     @GetMapping("/my-files")
-    public ResponseEntity<List<DocumentEntity>> getMyFiles() {
-        return fileService.getUserDocuments();
+    public ResponseEntity<CursorPage<DocumentSummary>> getMyFiles(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size) {
+        return fileService.getUserDocuments(cursor, size);
+    }
+
+    // Busca no texto extraído dos arquivos, ordenada por relevância
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<DocumentSearchHit>> search(@RequestParam String q,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size) {
+        return documentSearchService.search(q, cursor, size);
     }
 
     @ResponseStatus(HttpStatus.OK)
     @GetMapping("/{documentId}")
-    public ResponseEntity<DocumentEntity> getMyFilesById(@PathVariable String documentId) {
-        return fileService.getDocumentById(documentId);
+    public ResponseEntity<DocumentEntity> getMyFilesById(@PathVariable String documentId, WebRequest webRequest) {
+        return fileService.getDocumentById(documentId, webRequest);
     }
 
     @ResponseStatus(HttpStatus.OK)
     @GetMapping("/all-files")
-    public ResponseEntity<List<DocumentEntity>> getFiles() {
-        return fileService.getAllDocuments();
+    public ResponseEntity<CursorPage<DocumentSummary>> getFiles(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size) {
+        return fileService.getAllDocuments(cursor, size);
     }
 
     @ResponseStatus(HttpStatus.OK)
     @GetMapping("/download/{id}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String id) {
-        return fileService.downloadFileById(id);
+    public ResponseEntity<Resource> downloadFile(@PathVariable String id, WebRequest webRequest) {
+        return fileService.downloadFileById(id, webRequest);
     }
 
     @ResponseStatus(HttpStatus.OK)
     @GetMapping("/file-versions/{documentId}")
-    public ResponseEntity<List<FileVersion>> getFileVersions(@PathVariable String documentId) {
+    public ResponseEntity<CursorPage<FileVersion>> getFileVersions(@PathVariable String documentId,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer size,
+                                                                   WebRequest webRequest) {
         log.info("Buscando documento com id :::: {}", documentId);
-        return fileService.getFileVersionsById(documentId);
+        return fileService.getFileVersionsById(documentId, cursor, size, webRequest);
     }
 
     @ResponseStatus(HttpStatus.OK)
     @GetMapping("/download-version/{documentId}/{versionIndex}")
-    public ResponseEntity<Resource> downloadFileVersion(@PathVariable String documentId, @PathVariable int versionIndex) {
-        return fileService.downloadFileVersionByVersionIndex(documentId, versionIndex);
+    public ResponseEntity<Resource> downloadFileVersion(@PathVariable String documentId,
+                                                        @PathVariable int versionIndex,
+                                                        WebRequest webRequest) {
+        return fileService.downloadFileVersionByVersionIndex(documentId, versionIndex, webRequest);
+    }
+
+    // Miniatura JPEG da versão (404 enquanto não foi gerada ou para formatos sem prévia)
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/preview/{documentId}/{versionIndex}")
+    public ResponseEntity<Resource> downloadPreview(@PathVariable String documentId,
+                                                    @PathVariable int versionIndex,
+                                                    WebRequest webRequest) {
+        return fileService.downloadPreview(documentId, versionIndex, webRequest);
+    }
+
+    // Ex.: /files/download-zip?type=FINANCIAL&from=2025-03-01&to=2025-03-31 ou /files/download-zip?ids=a,b,c
+    @ResponseStatus(HttpStatus.OK)
+    @GetMapping("/download-zip")
+    public ResponseEntity<StreamingResponseBody> downloadZip(@RequestParam(required = false) List<String> ids,
+                                                             @RequestParam(required = false) DocumentType type,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return fileService.downloadZip(ids, type, from, to);
     }
 
     @ResponseStatus(HttpStatus.OK)
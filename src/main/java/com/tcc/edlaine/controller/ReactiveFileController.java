@@ -0,0 +1,60 @@
+package com.tcc.edlaine.controller;
+
+import com.tcc.edlaine.domain.dto.CursorPage;
+import com.tcc.edlaine.domain.dto.DocumentSummary;
+import com.tcc.edlaine.domain.dto.FileJson;
+import com.tcc.edlaine.domain.entities.UserEntity;
+import com.tcc.edlaine.service.AuthService;
+import com.tcc.edlaine.service.ReactiveFileService;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.PartEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Mesmas rotas do FileController, servidas pela ReactiveFileApplication (WebFlux)
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@RequestMapping("/files")
+public class ReactiveFileController {
+
+    private final ReactiveFileService reactiveFileService;
+
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<FileJson> upload(@RequestBody Flux<PartEvent> parts,
+                                 @RequestParam String type,
+                                 Authentication authentication) {
+        return reactiveFileService.uploadFile(authorizedUser(authentication), parts, type);
+    }
+
+    @GetMapping("/my-files")
+    public Mono<CursorPage<DocumentSummary>> getMyFiles(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size,
+                                                        Authentication authentication) {
+        return reactiveFileService.getUserDocuments(authorizedUser(authentication), cursor, size);
+    }
+
+    @GetMapping("/all-files")
+    public Mono<CursorPage<DocumentSummary>> getFiles(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size,
+                                                      Authentication authentication) {
+        return reactiveFileService.getAllDocuments(authorizedUser(authentication), cursor, size);
+    }
+
+    @GetMapping("/download/{id}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> downloadFile(@PathVariable String id,
+                                                               Authentication authentication) {
+        return reactiveFileService.downloadFileById(authorizedUser(authentication), id);
+    }
+
+    private static UserEntity authorizedUser(Authentication authentication) {
+        return AuthService.userFromClaims((Claims) authentication.getDetails());
+    }
+}
@@ -1,5 +1,6 @@
 package com.tcc.edlaine.controller;
 
+import com.tcc.edlaine.domain.dto.CursorPage;
 import com.tcc.edlaine.domain.entities.UserEntity;
 import com.tcc.edlaine.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -8,8 +9,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @Slf4j
 @RestController
 @RequiredArgsConstructor
@@ -33,8 +32,9 @@ public class UserController {
 
     @ResponseStatus(HttpStatus.OK)
     @GetMapping("/")
-    public ResponseEntity<List<UserEntity>> getAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<CursorPage<UserEntity>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size) {
+        return userService.getAllUsers(cursor, size);
     }
 
     @ResponseStatus(HttpStatus.OK)
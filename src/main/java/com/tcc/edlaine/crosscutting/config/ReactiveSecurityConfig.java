@@ -0,0 +1,107 @@
+package com.tcc.edlaine.crosscutting.config;
+
+import com.tcc.edlaine.crosscutting.utils.JwtTokenProvider;
+import com.tcc.edlaine.crosscutting.utils.TokenRevocationRegistry;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.AndServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+
+// Equivalente WebFlux do SecurityConfig + JwtAuthenticationFilter para a ReactiveFileApplication
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+@RequiredArgsConstructor
+public class ReactiveSecurityConfig {
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    @Value("${custom.url.front}")
+    private String frontUrl;
+    @Value("${management.server.port}")
+    private int managementPort;
+
+    @Bean
+    public SecurityWebFilterChain reactiveSecurityFilterChain(ServerHttpSecurity http) {
+        return http
+                .cors(cors -> cors.configurationSource(exchange -> {
+                    CorsConfiguration config = new CorsConfiguration();
+                    config.setAllowedOrigins(List.of(frontUrl));
+                    config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+                    config.setAllowedHeaders(List.of("*"));
+                    config.setAllowCredentials(true);
+                    return config;
+                }))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers("/actuator/health").permitAll()
+                        // Métricas abertas só na porta de gerenciamento, que escuta apenas em 127.0.0.1 (scraper local)
+                        .matchers(new AndServerWebExchangeMatcher(ServerWebExchangeMatchers.pathMatchers("/actuator/prometheus"),
+                                managementPortMatcher())).permitAll()
+                        .anyExchange().authenticated()
+                )
+                .addFilterAt(jwtAuthenticationWebFilter(), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    private ServerWebExchangeMatcher managementPortMatcher() {
+        return exchange -> exchange.getRequest().getLocalAddress() != null
+                && exchange.getRequest().getLocalAddress().getPort() == managementPort
+                ? ServerWebExchangeMatcher.MatchResult.match()
+                : ServerWebExchangeMatcher.MatchResult.notMatch();
+    }
+
+    private WebFilter jwtAuthenticationWebFilter() {
+        return (exchange, chain) -> {
+            String bearerToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (bearerToken == null || !bearerToken.startsWith("Bearer ")) {
+                return chain.filter(exchange);
+            }
+
+            Claims claims;
+            try {
+                claims = jwtTokenProvider.parseClaims(bearerToken.substring(7));
+            } catch (RuntimeException e) {
+                return unauthorized(exchange); // parseClaims embrulha toda falha (expirado, assinatura, formato) em RuntimeException
+            }
+            if (tokenRevocationRegistry.isRevoked(claims.getSubject(), JwtTokenProvider.getTokenVersion(claims))
+                    || claims.get("role") == null || claims.get("active") == null) {
+                return unauthorized(exchange); // Sem fallback para users: a API reativa autoriza só pelas claims
+            }
+
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(claims.getSubject(), null, Collections.emptyList());
+            authentication.setDetails(claims);
+            return chain.filter(exchange)
+                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+        };
+    }
+
+    private static Mono<Void> unauthorized(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        return exchange.getResponse().setComplete();
+    }
+}
@@ -2,6 +2,7 @@ package com.tcc.edlaine.crosscutting.config;
 
 import com.tcc.edlaine.crosscutting.utils.JwtAuthenticationFilter;
 import com.tcc.edlaine.crosscutting.utils.JwtTokenProvider;
+import com.tcc.edlaine.crosscutting.utils.TokenRevocationRegistry;
 import com.tcc.edlaine.service.MyUserDetailsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -30,9 +31,14 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
     private final MyUserDetailsService myUserDetailsService;
     @Value("${custom.url.front}")
     private String frontUrl;
+    @Value("${custom.security.bcrypt-strength}")
+    private int bcryptStrength;
+    @Value("${management.server.port}")
+    private int managementPort;
 
     @Bean
     public WebMvcConfigurer corsConfigurer() {
@@ -60,19 +66,21 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(myUserDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Regrava o hash no login quando a força configurada do BCrypt aumenta
+        authProvider.setUserDetailsPasswordService(myUserDetailsService);
         return authProvider;
     }
 
     // Criando o filtro JWT como um bean
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter(AuthenticationManager authenticationManager, JwtTokenProvider jwtTokenProvider) {
-        return new JwtAuthenticationFilter(authenticationManager, jwtTokenProvider);
+        return new JwtAuthenticationFilter(authenticationManager, jwtTokenProvider, tokenRevocationRegistry);
     }
 
     // Criação do PasswordEncoder
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     // Configuração de segurança
@@ -93,6 +101,10 @@ public class SecurityConfig {
                                 .requestMatchers("/auth/register/**").permitAll()
                                 .requestMatchers("/files/**").permitAll()
                                 .requestMatchers("/users/**").permitAll()
+                                .requestMatchers("/actuator/health").permitAll()
+                                // Métricas abertas só na porta de gerenciamento, que escuta apenas em 127.0.0.1 (scraper local)
+                                .requestMatchers(request -> request.getLocalPort() == managementPort
+                                        && "/actuator/prometheus".equals(request.getRequestURI())).permitAll()
                                 .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider())
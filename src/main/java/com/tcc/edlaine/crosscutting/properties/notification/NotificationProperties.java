@@ -0,0 +1,22 @@
+package com.tcc.edlaine.crosscutting.properties.notification;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "custom.notification")
+public class NotificationProperties {
+
+    private int batchSize = 50;
+    private int maxAttempts = 8;
+    private Duration initialBackoff = Duration.ofSeconds(30);
+    private Duration maxBackoff = Duration.ofHours(1);
+    private Duration lease = Duration.ofMinutes(2);
+
+}
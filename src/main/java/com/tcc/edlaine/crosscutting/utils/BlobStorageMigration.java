@@ -0,0 +1,121 @@
+package com.tcc.edlaine.crosscutting.utils;
+
+import com.tcc.edlaine.service.BlobStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StopWatch;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Copia os blobs de um backend para outro com a aplicação no ar. O FileStorageService lê de qualquer
+ * backend, então os downloads continuam funcionando durante a cópia; para concluir a troca basta apontar
+ * custom.storage.backend para o destino (antes ou depois da cópia). É idempotente: blobs já presentes
+ * no destino com o mesmo tamanho são pulados, e uma execução interrompida é retomada de onde parou.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "custom.storage.migration.enabled", havingValue = "true")
+public class BlobStorageMigration {
+
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private final BlobStore source;
+    private final BlobStore target;
+    private final boolean deleteSource;
+
+    public BlobStorageMigration(List<BlobStore> blobStores,
+                                @Value("${custom.storage.migration.source}") String source,
+                                @Value("${custom.storage.migration.target}") String target,
+                                @Value("${custom.storage.migration.delete-source}") boolean deleteSource) {
+        if (source.equals(target)) {
+            throw new IllegalStateException("Storage migration source and target must differ: " + source);
+        }
+        this.source = find(blobStores, source);
+        this.target = find(blobStores, target);
+        this.deleteSource = deleteSource;
+    }
+
+    // Fora da thread de startup: a cópia pode levar horas
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        int copied = 0;
+        int skipped = 0;
+        int failed = 0;
+
+        try (Stream<String> blobIds = source.listIds()) {
+            for (Iterator<String> iterator = blobIds.iterator(); iterator.hasNext(); ) {
+                String blobId = iterator.next();
+                try {
+                    if (migrate(blobId)) {
+                        copied++;
+                    } else {
+                        skipped++;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    failed++;
+                    log.warn("Failed to migrate blob {} from {} to {}: {}", blobId, source.name(), target.name(), e.getMessage());
+                }
+                if ((copied + skipped + failed) % PROGRESS_INTERVAL == 0) {
+                    log.info("Blob migration {} -> {}: {} copied, {} skipped, {} failed", source.name(), target.name(), copied, skipped, failed);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Blob migration {} -> {} aborted: {}", source.name(), target.name(), e.getMessage());
+        }
+
+        stopWatch.stop();
+        log.info("✅ Migração de blobs {} -> {}: {} copiados, {} já existentes, {} falhas em {} ms",
+                source.name(), target.name(), copied, skipped, failed, stopWatch.getTotalTimeMillis());
+    }
+
+    private boolean migrate(String blobId) throws IOException {
+        Optional<BlobStore.BlobStat> sourceStat = source.stat(blobId);
+        if (sourceStat.isEmpty()) {
+            return false; // Apagado depois da listagem
+        }
+
+        Optional<BlobStore.BlobStat> targetStat = target.stat(blobId);
+        boolean copy = targetStat.isEmpty() || targetStat.get().length() != sourceStat.get().length();
+        if (copy) {
+            long length;
+            try (InputStream inputStream = source.open(blobId, 0)) {
+                length = target.save(blobId, blobId, inputStream);
+            }
+            if (length != sourceStat.get().length()) {
+                target.delete(blobId);
+                throw new IOException("Copied " + length + " of " + sourceStat.get().length() + " bytes");
+            }
+            // O deleteFile pode ter apagado o blob de todos os backends durante a cópia
+            if (source.stat(blobId).isEmpty()) {
+                target.delete(blobId);
+                return false;
+            }
+        }
+
+        if (deleteSource) {
+            source.delete(blobId);
+        }
+        return copy;
+    }
+
+    private static BlobStore find(List<BlobStore> blobStores, String name) {
+        return blobStores.stream()
+                .filter(store -> store.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown storage backend: " + name));
+    }
+}
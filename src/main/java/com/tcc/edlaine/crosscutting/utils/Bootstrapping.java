@@ -2,63 +2,107 @@ package com.tcc.edlaine.crosscutting.utils;
 
 import com.tcc.edlaine.domain.entities.UserEntity;
 import com.tcc.edlaine.domain.enums.PermissionLevel;
-import com.tcc.edlaine.repository.UserRepository;
 import com.tcc.edlaine.service.AuthService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.CommandLineRunner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StopWatch;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Slf4j
 @Component
-@RequiredArgsConstructor(onConstructor_ = {@Autowired})
-public class Bootstrapping implements CommandLineRunner {
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "custom.bootstrap.seed-users.enabled", havingValue = "true", matchIfMissing = true)
+public class Bootstrapping {
 
-    @Autowired
-    private UserRepository userRepository;
-    private final AuthService authService;
+    private static final List<SeedUser> SEED_USERS = List.of(
+            new SeedUser("Edlaine Nunes", "11111111111", "edlaine.nunesr@gmail.com", "edlaine123", PermissionLevel.SUPER_ADMIN, true),
+            new SeedUser("Felipe Mota", "12345639586", "felipe@gmail.com", "felipe", PermissionLevel.SUPER_ADMIN, true),
+            new SeedUser("Cleaine Oliveira", "86354968752", "cleiane@gmail.com", "cleiane", PermissionLevel.SUPER_ADMIN, true),
+            new SeedUser("Giuliano Viana", "56398426896", "giuliano@gmail.com", "giuliano", PermissionLevel.SUPER_ADMIN, true),
+            new SeedUser("Avaliador", "68935742956", "avaliador@gmail.com", "avaliador", PermissionLevel.SUPER_ADMIN, true),
 
+            new SeedUser("User Super Admin", "22222222222", "super.admin@gmail.com", "edlaine123", PermissionLevel.SUPER_ADMIN, true),
+            new SeedUser("User Admin", "33333333333", "admin@gmail.com", "edlaine123", PermissionLevel.ADMIN, true),
+            new SeedUser("User Counter", "44444444444", "counter@gmail.com", "edlaine123", PermissionLevel.COUNTER, true),
+            new SeedUser("User User", "55555555555", "user@gmail.com", "edlaine123", PermissionLevel.USER, true),
+            new SeedUser("User Guest", "66666666666", "guest@gmail.com", "edlaine123", PermissionLevel.GUEST, true),
+            new SeedUser("User Admin Inactive", "77777777777", "admin.inactive@gmail.com", "edlaine123", PermissionLevel.ADMIN, false),
+            new SeedUser("User Counter Inactive", "88888888888", "counter.inactive@gmail.com", "edlaine123", PermissionLevel.COUNTER, false)
+    );
 
-    @Override
-    public void run(String... args) throws Exception {
+    private final MongoTemplate mongoTemplate;
+    private final AuthService authService;
+
+    // Roda depois da aplicação pronta e fora da thread de startup: o boot não espera pelo BCrypt
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        log.info("Application ready in {} ms", event.getTimeTaken().toMillis());
         seedUsers();
     }
 
     private void seedUsers() {
-        List<UserEntity> users = List.of(
-                new UserEntity("Edlaine Nunes", "11111111111", "edlaine.nunesr@gmail.com", authService.encriptPassword( "edlaine123"), PermissionLevel.SUPER_ADMIN, true),
-                new UserEntity("Felipe Mota", "12345639586", "felipe@gmail.com", authService.encriptPassword("felipe"), PermissionLevel.SUPER_ADMIN, true),
-                new UserEntity("Cleaine Oliveira", "86354968752", "cleiane@gmail.com", authService.encriptPassword("cleiane"), PermissionLevel.SUPER_ADMIN, true),
-                new UserEntity("Giuliano Viana", "56398426896", "giuliano@gmail.com", authService.encriptPassword("giuliano"), PermissionLevel.SUPER_ADMIN, true),
-                new UserEntity("Avaliador", "68935742956", "avaliador@gmail.com", authService.encriptPassword("avaliador"), PermissionLevel.SUPER_ADMIN, true),
-
-                new UserEntity("User Super Admin", "22222222222", "super.admin@gmail.com", authService.encriptPassword("edlaine123"), PermissionLevel.SUPER_ADMIN, true),
-                new UserEntity("User Admin", "33333333333", "admin@gmail.com", authService.encriptPassword("edlaine123"), PermissionLevel.ADMIN, true),
-                new UserEntity("User Counter", "44444444444", "counter@gmail.com", authService.encriptPassword("edlaine123"), PermissionLevel.COUNTER, true),
-                new UserEntity("User User", "55555555555", "user@gmail.com", authService.encriptPassword("edlaine123"), PermissionLevel.USER, true),
-                new UserEntity("User Guest", "66666666666", "guest@gmail.com", authService.encriptPassword("edlaine123"), PermissionLevel.GUEST, true),
-                new UserEntity("User Admin Inactive", "77777777777", "admin.inactive@gmail.com", authService.encriptPassword("edlaine123"), PermissionLevel.ADMIN, false),
-                new UserEntity("User Counter Inactive", "88888888888", "counter.inactive@gmail.com", authService.encriptPassword("edlaine123"), PermissionLevel.COUNTER, false)
-
-        );
-
-        List<UserEntity> usersToSave = new ArrayList<>();
-
-        for (UserEntity user : users) {
-            if (!userRepository.existsByEmail(user.getEmail())) {
-                usersToSave.add(user);
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+
+        Set<String> existingEmails = findExistingEmails();
+        List<SeedUser> missingUsers = SEED_USERS.stream()
+                .filter(user -> !existingEmails.contains(user.email()))
+                .toList();
+
+        if (!missingUsers.isEmpty()) {
+            // Upsert com $setOnInsert: idempotente mesmo com dois nós subindo juntos
+            BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserEntity.class);
+            for (SeedUser user : missingUsers) {
+                bulkOperations.upsert(query(where("email").is(user.email())), new Update()
+                        .setOnInsert("username", user.username())
+                        .setOnInsert("cpf", user.cpf())
+                        .setOnInsert("password", authService.encriptPassword(user.rawPassword()))
+                        .setOnInsert("permissionLevel", user.permissionLevel())
+                        .setOnInsert("active", user.active())
+                        .setOnInsert("tokenVersion", 0));
             }
+            bulkOperations.execute();
         }
 
-        if (!usersToSave.isEmpty()) {
-            userRepository.saveAll(usersToSave);
-            System.out.println("✅ Novos usuários cadastrados no MongoDB!");
+        stopWatch.stop();
+        if (!missingUsers.isEmpty()) {
+            log.info("✅ {} novos usuários cadastrados no MongoDB em {} ms", missingUsers.size(), stopWatch.getTotalTimeMillis());
         } else {
-            System.out.println("⚠️ Nenhum novo usuário foi cadastrado. Todos já existem no banco.");
+            log.info("⚠️ Nenhum novo usuário foi cadastrado. Todos já existem no banco ({} ms).", stopWatch.getTotalTimeMillis());
         }
+    }
+
+    private Set<String> findExistingEmails() {
+        Query existing = query(where("email").in(SEED_USERS.stream().map(SeedUser::email).toList()));
+        existing.fields().include("email");
+
+        return mongoTemplate.find(existing, UserEntity.class).stream()
+                .map(UserEntity::getEmail)
+                .collect(Collectors.toSet());
+    }
 
+    private record SeedUser(String username,
+                            String cpf,
+                            String email,
+                            String rawPassword,
+                            PermissionLevel permissionLevel,
+                            boolean active) {
     }
 
 }
@@ -0,0 +1,54 @@
+package com.tcc.edlaine.crosscutting.utils;
+
+import com.tcc.edlaine.crosscutting.exceptions.general.ObjectBadRequestException;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+// Paginação por keyset sobre o _id (ObjectId cresce com a data de criação) ou sobre a sequência das versões
+public final class CursorPagination {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private CursorPagination() {
+    }
+
+    public static int pageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    // Um item a mais que o tamanho da página, usado por CursorPage para saber se há próxima página
+    public static Pageable newestFirst(int pageSize) {
+        return firstPage(pageSize, Sort.by(Sort.Direction.DESC, "id"));
+    }
+
+    public static Pageable firstPage(int pageSize, Sort sort) {
+        return PageRequest.of(0, pageSize + 1, sort);
+    }
+
+    public static ObjectId parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        if (!ObjectId.isValid(cursor)) {
+            throw new ObjectBadRequestException("Invalid cursor: " + cursor);
+        }
+        return new ObjectId(cursor);
+    }
+
+    public static Integer parseSequenceCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(cursor);
+        } catch (NumberFormatException e) {
+            throw new ObjectBadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
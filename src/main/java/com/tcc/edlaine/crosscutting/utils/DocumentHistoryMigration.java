@@ -0,0 +1,95 @@
+package com.tcc.edlaine.crosscutting.utils;
+
+import com.mongodb.client.MongoCursor;
+import com.tcc.edlaine.domain.entities.DocumentEntity;
+import com.tcc.edlaine.domain.entities.FileVersion;
+import com.tcc.edlaine.domain.entities.SharedRecord;
+import com.tcc.edlaine.repository.FileVersionRepository;
+import com.tcc.edlaine.repository.SharedRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.mongodb.client.model.Filters.exists;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Move os arrays embutidos (versions e shareHistory) dos documentos antigos para as coleções
+ * file_versions e share_records. É idempotente: um documento só perde os arrays depois que
+ * o histórico foi regravado, e uma execução interrompida é refeita do zero para aquele documento.
+ * Liga-se uma única vez, ao atualizar uma base anterior, e desliga-se em seguida: a consulta por
+ * "versions" não tem índice. Roda ao fim da criação dos beans, antes de o servidor web aceitar
+ * requisições, para que nenhum download veja um documento ainda sem latestVersion.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "custom.migration.document-history.enabled", havingValue = "true")
+public class DocumentHistoryMigration implements SmartInitializingSingleton {
+
+    private final MongoTemplate mongoTemplate;
+    private final FileVersionRepository fileVersionRepository;
+    private final SharedRecordRepository sharedRecordRepository;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        int migrated = 0;
+        String collection = mongoTemplate.getCollectionName(DocumentEntity.class);
+
+        try (MongoCursor<Document> cursor = mongoTemplate.getCollection(collection)
+                .find(exists("versions"))
+                .iterator()) {
+            while (cursor.hasNext()) {
+                migrate(cursor.next());
+                migrated++;
+            }
+        }
+
+        if (migrated > 0) {
+            log.info("Document history migrated for {} documents", migrated);
+        }
+    }
+
+    private void migrate(Document legacy) {
+        String documentId = legacy.getObjectId("_id").toHexString();
+
+        fileVersionRepository.deleteByDocumentId(documentId);
+        sharedRecordRepository.deleteByDocumentId(documentId);
+
+        List<FileVersion> versions = new ArrayList<>();
+        for (Document item : legacy.getList("versions", Document.class, List.of())) {
+            FileVersion version = mongoTemplate.getConverter().read(FileVersion.class, item);
+            version.setDocumentId(documentId);
+            version.setSequence(versions.size());
+            versions.add(version);
+        }
+
+        List<SharedRecord> shareHistory = new ArrayList<>();
+        for (Document item : legacy.getList("shareHistory", Document.class, List.of())) {
+            SharedRecord sharedRecord = mongoTemplate.getConverter().read(SharedRecord.class, item);
+            sharedRecord.setDocumentId(documentId);
+            shareHistory.add(sharedRecord);
+        }
+
+        fileVersionRepository.insert(versions);
+        sharedRecordRepository.insert(shareHistory);
+
+        FileVersion latestVersion = versions.isEmpty() ? null : versions.get(versions.size() - 1);
+        mongoTemplate.updateFirst(query(where("_id").is(documentId)),
+                new Update()
+                        .set("latestVersion", latestVersion)
+                        .set("versionCount", versions.size())
+                        .unset("versions")
+                        .unset("shareHistory"),
+                DocumentEntity.class);
+    }
+}
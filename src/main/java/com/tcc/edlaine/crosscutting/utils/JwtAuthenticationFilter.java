@@ -1,5 +1,6 @@
 package com.tcc.edlaine.crosscutting.utils;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,6 +19,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -25,9 +27,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain ) throws ServletException, IOException {
         String token = getJwtFromRequest(request);
 
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            String customerEmail = jwtTokenProvider.getUserFromToken(token);
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(customerEmail, null, Collections.emptyList());
+        if (token != null) {
+            Claims claims = jwtTokenProvider.parseClaims(token);
+            if (tokenRevocationRegistry.isRevoked(claims.getSubject(), JwtTokenProvider.getTokenVersion(claims))) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token revoked");
+                return;
+            }
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(claims.getSubject(), null, Collections.emptyList());
+            authentication.setDetails(claims);
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
 
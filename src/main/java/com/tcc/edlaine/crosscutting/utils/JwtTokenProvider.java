@@ -1,23 +1,53 @@
 package com.tcc.edlaine.crosscutting.utils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.tcc.edlaine.domain.entities.UserEntity;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
+import java.util.HexFormat;
 
 @Slf4j
 @Component
 public class JwtTokenProvider {
 
     private static final String SECRET_KEY = "abcdefghijklmnopqrstuvxyz123456789012";
+    public static final Duration TOKEN_VALIDITY = Duration.ofHours(10);
     private final Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    // O parser é imutável e thread-safe: construído uma única vez
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(key)
+            .build();
+    // Tokens já verificados, indexados pelo hash do token e expirando junto com ele
+    private final Cache<String, Claims> verifiedTokens;
 
+    public JwtTokenProvider(@Value("${custom.cache.tokens.max-size}") long maxSize,
+                            MeterRegistry meterRegistry) {
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "verifiedTokens");
+    }
 
     public String generateToken(UserEntity user) {
         return Jwts.builder()
@@ -25,38 +55,83 @@ public class JwtTokenProvider {
                 .claim("name", user.getUsername())
                 .claim("role", user.getPermissionLevel().name())
                 .claim("userId", user.getId())
+                .claim("active", user.isActive())
+                .claim("tokenVersion", user.getTokenVersion())
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // 10 horas
+                .setExpiration(new Date(System.currentTimeMillis() + TOKEN_VALIDITY.toMillis()))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    // Verifica a assinatura uma única vez por token; as chamadas seguintes saem do cache
+    public Claims parseClaims(String token) {
+        return verifiedTokens.get(hash(token), tokenHash -> verify(token));
+    }
+
     public boolean validateToken(String token) {
+        parseClaims(token);
+        return true;
+    }
+
+    public String getUserFromToken(String token) {
+        return parseClaims(token).getSubject();
+    }
+
+    public Claims getClaims(String token) {
+        return parseClaims(token);
+    }
+
+    // Tokens emitidos antes do tokenVersion existir valem como versão 0
+    public static int getTokenVersion(Claims claims) {
+        Integer tokenVersion = claims.get("tokenVersion", Integer.class);
+        return tokenVersion == null ? 0 : tokenVersion;
+    }
+
+    // Claims anexadas ao contexto de segurança pelo JwtAuthenticationFilter
+    public static Claims getAuthenticatedClaims() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getDetails() instanceof Claims claims) {
+            return claims;
+        }
+        return null;
+    }
+
+    private Claims verify(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            return parser.parseClaimsJws(token).getBody();
         } catch (Exception e) {
             throw new RuntimeException("Invalid token. Error: " + e.getMessage());
         }
     }
 
-    public String getUserFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
-    public Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            if (claims.getExpiration() == null) {
+                return 0;
+            }
+            long millisToExpire = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return Math.max(0, millisToExpire) * 1_000_000;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
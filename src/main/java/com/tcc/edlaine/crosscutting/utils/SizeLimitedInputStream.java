@@ -0,0 +1,59 @@
+package com.tcc.edlaine.crosscutting.utils;
+
+import com.tcc.edlaine.crosscutting.exceptions.file.FileUnprocessableEntity;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Interrompe a leitura quando o corpo da requisição ultrapassa o limite configurado,
+ * já que o upload em streaming não passa pelos limites do multipart.
+ */
+public class SizeLimitedInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private long bytesRead;
+
+    public SizeLimitedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int value = super.read();
+        if (value != -1) {
+            count(1);
+        }
+        return value;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, len);
+        if (read > 0) {
+            count(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long read) {
+        bytesRead += read;
+        if (bytesRead > maxBytes) {
+            throw new FileUnprocessableEntity("File exceeds the maximum allowed size of " + maxBytes + " bytes.");
+        }
+    }
+}
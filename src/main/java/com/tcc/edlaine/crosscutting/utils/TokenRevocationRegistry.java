@@ -0,0 +1,83 @@
+package com.tcc.edlaine.crosscutting.utils;
+
+import com.tcc.edlaine.domain.entities.UserEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Versão mínima de token aceita por usuário. Um token é revogado quando o tokenVersion
+ * gravado nele é menor que o atual do usuário (incrementado ao mudar status ou permissão).
+ * Só revogações mais novas que a validade do token (JwtTokenProvider.TOKEN_VALIDITY) ficam no mapa:
+ * tokens emitidos antes delas já expiraram. No nó que revoga o efeito é imediato; nos demais,
+ * a recarga lê só os usuários com tokenRevokedAt desde a passada anterior, então a revogação
+ * leva até custom.auth.revocation-refresh-ms (60 s por padrão) para chegar.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationRegistry {
+
+    // Folga para relógios de nós diferentes e gravações concluídas durante a consulta anterior
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(30);
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<String, Revocation> revocations = new ConcurrentHashMap<>();
+    private volatile LocalDateTime revokedSince; // null até a primeira carga
+
+    public boolean isRevoked(String email, int tokenVersion) {
+        Revocation revocation = revocations.get(email);
+        return revocation != null && tokenVersion < revocation.tokenVersion();
+    }
+
+    public void revoke(String email, int currentTokenVersion) {
+        revoke(email, currentTokenVersion, LocalDateTime.now());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${custom.auth.revocation-refresh-ms:60000}", initialDelayString = "${custom.auth.revocation-refresh-ms:60000}")
+    public synchronized void refresh() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime tokensIssuedAfter = startedAt.minus(JwtTokenProvider.TOKEN_VALIDITY);
+
+        Criteria changed;
+        if (revokedSince == null) {
+            // Primeira carga: revogações dentro da validade do token, mais as anteriores ao tokenRevokedAt
+            changed = new Criteria().orOperator(
+                    where("tokenRevokedAt").gte(tokensIssuedAfter),
+                    where("tokenRevokedAt").exists(false).and("tokenVersion").gt(0));
+        } else {
+            changed = where("tokenRevokedAt").gte(revokedSince);
+        }
+        Query revokedUsers = query(changed);
+        revokedUsers.fields().include("email").include("tokenVersion").include("tokenRevokedAt");
+
+        mongoTemplate.find(revokedUsers, UserEntity.class).forEach(user -> revoke(user.getEmail(), user.getTokenVersion(),
+                user.getTokenRevokedAt() == null ? startedAt : user.getTokenRevokedAt()));
+        revocations.values().removeIf(revocation -> revocation.revokedAt().isBefore(tokensIssuedAfter));
+        revokedSince = startedAt.minus(CLOCK_SKEW);
+        log.debug("Token revocation registry refreshed: {} users", revocations.size());
+    }
+
+    private void revoke(String email, int tokenVersion, LocalDateTime revokedAt) {
+        revocations.merge(email, new Revocation(tokenVersion, revokedAt),
+                (current, added) -> added.tokenVersion() > current.tokenVersion() ? added : current);
+    }
+
+    private record Revocation(int tokenVersion, LocalDateTime revokedAt) {
+    }
+}
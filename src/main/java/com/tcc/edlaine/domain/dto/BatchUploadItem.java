@@ -0,0 +1,24 @@
+package com.tcc.edlaine.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Resultado de um arquivo do upload em lote: id do documento criado ou o motivo da falha
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchUploadItem {
+    private String fileName;
+    private String id;
+    private boolean success;
+    private String error;
+
+    public static BatchUploadItem created(String fileName, String id) {
+        return new BatchUploadItem(fileName, id, true, null);
+    }
+
+    public static BatchUploadItem failed(String fileName, String error) {
+        return new BatchUploadItem(fileName, null, false, error);
+    }
+}
@@ -0,0 +1,26 @@
+package com.tcc.edlaine.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor; // Ausente na última página
+
+    // A consulta busca size + 1 itens: o excedente indica que existe uma próxima página
+    public static <T> CursorPage<T> of(List<T> items, int size, Function<T, String> cursorOf) {
+        if (items.size() <= size) {
+            return new CursorPage<>(items, null);
+        }
+
+        List<T> content = items.subList(0, size);
+        return new CursorPage<>(content, cursorOf.apply(content.get(size - 1)));
+    }
+}
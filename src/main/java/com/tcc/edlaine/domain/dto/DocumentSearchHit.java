@@ -0,0 +1,33 @@
+package com.tcc.edlaine.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.tcc.edlaine.domain.entities.DocumentContent;
+import com.tcc.edlaine.domain.enums.DocumentType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Resultado da busca por conteúdo, sem o texto indexado
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DocumentSearchHit {
+    private String id;
+    private String filename;
+    private DocumentType type;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+    private Float score;
+
+    public static DocumentSearchHit from(DocumentContent content) {
+        return new DocumentSearchHit(
+                content.getId(),
+                content.getFilename(),
+                content.getType(),
+                content.getCreatedAt(),
+                content.getScore()
+        );
+    }
+}
@@ -0,0 +1,34 @@
+package com.tcc.edlaine.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.tcc.edlaine.domain.entities.DocumentEntity;
+import com.tcc.edlaine.domain.entities.FileVersion;
+import com.tcc.edlaine.domain.enums.DocumentType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Resumo usado nas listagens; o documento completo fica em /files/{documentId}
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DocumentSummary {
+    private String id;
+    private String filename;
+    private DocumentType type;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+    private FileVersion latestVersion;
+
+    public static DocumentSummary from(DocumentEntity document) {
+        return new DocumentSummary(
+                document.getId(),
+                document.getFilename(),
+                document.getType(),
+                document.getCreatedAt(),
+                document.getLatestVersion()
+        );
+    }
+}
@@ -0,0 +1,12 @@
+package com.tcc.edlaine.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class StoredFile {
+    private String fileId;
+    private String contentHash;
+    private long length;
+}
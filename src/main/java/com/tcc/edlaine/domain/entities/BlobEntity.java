@@ -0,0 +1,30 @@
+package com.tcc.edlaine.domain.entities;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@Document(collection = "blobs")
+public class BlobEntity {
+    @Id
+    private String id; // Mesmo id do arquivo no GridFS
+    @Indexed(unique = true)
+    private String contentHash; // SHA-256 do conteúdo
+    private long length;
+    private long refCount; // Quantidade de versões que apontam para este blob
+    private LocalDateTime createdAt;
+
+    public BlobEntity(String id, String contentHash, long length) {
+        this.id = id;
+        this.contentHash = contentHash;
+        this.length = length;
+        this.refCount = 1;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,32 @@
+package com.tcc.edlaine.domain.entities;
+
+import com.tcc.edlaine.domain.enums.DocumentType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.TextIndexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
+
+import java.time.LocalDateTime;
+
+// Texto extraído da última versão de cada documento, com índice de texto (stemming em português)
+@Data
+@NoArgsConstructor
+@Document(collection = "document_contents", language = "portuguese")
+public class DocumentContent {
+    @Id
+    private String id; // Mesmo id do documento
+    @TextIndexed(weight = 3)
+    private String filename;
+    @TextIndexed
+    private String text;
+    private DocumentType type;
+    private String customerEmail;
+    private LocalDateTime createdAt;
+    private int versionSequence; // Versão indexada; eventos de versões anteriores são ignorados
+    private String contentHash;
+    private LocalDateTime indexedAt;
+    @TextScore
+    private Float score; // Preenchido só nas buscas
+}
@@ -5,17 +5,26 @@ import com.tcc.edlaine.domain.enums.DocumentType;
 import com.tcc.edlaine.domain.enums.PermissionLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.UUID;
 
 @Data
 @NoArgsConstructor
 @Document(collection = "documents")
+@CompoundIndexes({
+        @CompoundIndex(name = "type_id_idx", def = "{'type': 1, '_id': -1}"),
+        @CompoundIndex(name = "customer_email_id_idx", def = "{'customerEmail': 1, '_id': -1}"),
+        @CompoundIndex(name = "type_created_at_idx", def = "{'type': 1, 'createdAt': 1}"),
+        // ZIP por período sem tipo (usuário privilegiado): o prefixo type do índice acima não atende
+        @CompoundIndex(name = "created_at_idx", def = "{'createdAt': 1}")
+})
 public class DocumentEntity {
     @Id
     private String id;
@@ -25,57 +34,33 @@ public class DocumentEntity {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime createdAt;
     private DocumentType type;
-    private List<FileVersion> versions = new ArrayList<>();
-
-    private List<SharedRecord> shareHistory = new ArrayList<>();
+    // Histórico completo em file_versions e share_records; aqui fica só a última versão
+    private FileVersion latestVersion;
+    private int versionCount;
+    @Version
+    private Long revision; // Incrementado a cada escrita; protege saves concorrentes (optimistic locking)
 
     public DocumentEntity(String filename,
                           String customerEmail,
-                          String fileId,
                           String type) {
+        this.id = new ObjectId().toHexString();
         this.filename = filename;
         this.customerEmail = customerEmail;
         this.createdAt = LocalDateTime.now();
         this.type = DocumentType.fromString(type);
-
-        addVersion(fileId, filename, LocalDateTime.now());
     }
 
-    public DocumentEntity(String filename,
-                          String customerEmail,
-                          String fileId,
-                          String documentId,
-                          String type) {
-        this.id = documentId;
-        this.filename = filename;
-        this.customerEmail = customerEmail;
-        this.createdAt = LocalDateTime.now();
-        this.type = DocumentType.fromString(type);
-
-        addVersion(fileId, filename, LocalDateTime.now());
-    }
-
-    public void addVersion(String fileId, String filename, LocalDateTime dateTime) {
-        versions.add(new FileVersion(fileId, filename, dateTime));
-    }
-
-    public FileVersion getLatestVersion() {
-        return versions.isEmpty() ? null : versions.get(versions.size() - 1);
-    }
-
-    public FileVersion getVersionByIndex(int index) {
-        if (index >= 0 && index < versions.size()) {
-            return versions.get(index);
-        }
-        return null;
+    public FileVersion addVersion(String fileId, String filename, LocalDateTime dateTime, String contentHash) {
+        FileVersion version = new FileVersion(id, versionCount, fileId, filename, dateTime, contentHash);
+        latestVersion = version;
+        versionCount++;
+        return version;
     }
 
-    public void shareWithEmail(String email, String sharedBy) {
+    public SharedRecord shareWithEmail(String email, String sharedBy) {
         String emailId = UUID.randomUUID().toString();
-        SharedRecord sharedRecord = new SharedRecord(email, emailId, PermissionLevel.GUEST, LocalDateTime.now(), sharedBy);
-        shareHistory.add(sharedRecord);
+        return new SharedRecord(id, filename, email, emailId, PermissionLevel.GUEST, LocalDateTime.now(), sharedBy);
     }
 
 
 }
-
@@ -1,14 +1,44 @@
 package com.tcc.edlaine.domain.entities;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
 @Data
-@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "file_versions")
+@CompoundIndexes({
+        @CompoundIndex(name = "document_sequence_idx", def = "{'documentId': 1, 'sequence': 1}", unique = true)
+})
 public class FileVersion {
-    private String fileId;
+    @Id
+    private String id;
+    private String documentId;
+    private int sequence; // Índice da versão dentro do documento, começando em 0
+    @Indexed
+    private String fileId; // Blob compartilhado entre versões com o mesmo conteúdo
     private String fileName;
     private LocalDateTime uploadedAt;
+    private String contentHash;
+    private String previewFileId; // Miniatura JPEG no GridFS, gerada em segundo plano (ausente para formatos sem prévia)
+
+    public FileVersion(String documentId,
+                       int sequence,
+                       String fileId,
+                       String fileName,
+                       LocalDateTime uploadedAt,
+                       String contentHash) {
+        this.documentId = documentId;
+        this.sequence = sequence;
+        this.fileId = fileId;
+        this.fileName = fileName;
+        this.uploadedAt = uploadedAt;
+        this.contentHash = contentHash;
+    }
 }
@@ -1,18 +1,57 @@
 package com.tcc.edlaine.domain.entities;
 
+import com.tcc.edlaine.domain.enums.NotificationStatus;
 import com.tcc.edlaine.domain.enums.PermissionLevel;
-import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
 @Data
-@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "share_records")
+@CompoundIndexes({
+        @CompoundIndex(name = "document_id_idx", def = "{'documentId': 1, '_id': 1}"),
+        @CompoundIndex(name = "notification_outbox_idx", def = "{'notificationStatus': 1, 'nextNotificationAt': 1}")
+})
 public class SharedRecord {
+    @Id
+    private String id; // Ordena o histórico: ObjectId cresce a cada compartilhamento
+    private String documentId; // Documento compartilhado
+    private String fileName; // Nome do arquivo no momento do compartilhamento
     private String email; // E-mail do destinatário
     private String emailId; // ID único para o e-mail de compartilhamento
     private PermissionLevel permissionLevel; // Nível de permissão do usuário
     private LocalDateTime sharedAt; // Data e hora do compartilhamento
     private String sharedBy; // E-mail de quem fez o compartilhamento
 
+    // Outbox: o próprio registro guarda o estado do e-mail, gravado no mesmo insert do compartilhamento
+    private NotificationStatus notificationStatus;
+    private int notificationAttempts;
+    private LocalDateTime nextNotificationAt; // Próxima tentativa (ou fim da reserva quando SENDING)
+    private LocalDateTime notifiedAt;
+    private String lastNotificationError;
+
+    public SharedRecord(String documentId,
+                        String fileName,
+                        String email,
+                        String emailId,
+                        PermissionLevel permissionLevel,
+                        LocalDateTime sharedAt,
+                        String sharedBy) {
+        this.documentId = documentId;
+        this.fileName = fileName;
+        this.email = email;
+        this.emailId = emailId;
+        this.permissionLevel = permissionLevel;
+        this.sharedAt = sharedAt;
+        this.sharedBy = sharedBy;
+        this.notificationStatus = NotificationStatus.PENDING;
+        this.nextNotificationAt = sharedAt;
+    }
+
 }
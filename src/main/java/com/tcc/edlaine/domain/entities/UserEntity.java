@@ -9,6 +9,8 @@ import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.LocalDateTime;
+
 @Data
 @Document(collection = "users")
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -21,11 +23,14 @@ public class UserEntity {
     private String username;
     @Indexed(unique = true)
     private String cpf;
-    @Indexed(unique = true)
-    private String email;
+    private String email; // Único pelo unique_email_idx
     private String password;
     private PermissionLevel permissionLevel;
     private boolean active;
+    @Indexed
+    private int tokenVersion; // Incrementado ao mudar status ou permissão: revoga os tokens emitidos antes
+    @Indexed
+    private LocalDateTime tokenRevokedAt; // Momento do último incremento: a recarga dos outros nós lê só as revogações novas
 
     public UserEntity(String username,
                       String cpf,
@@ -0,0 +1,15 @@
+package com.tcc.edlaine.domain.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum NotificationStatus {
+    PENDING("Aguardando envio do e-mail de compartilhamento."),
+    SENDING("Reservado por um envio em andamento."),
+    SENT("E-mail de compartilhamento enviado."),
+    FAILED("Envio abandonado após esgotar as tentativas.");
+
+    private final String description;
+}
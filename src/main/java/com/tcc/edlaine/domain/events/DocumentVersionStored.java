@@ -0,0 +1,8 @@
+package com.tcc.edlaine.domain.events;
+
+import com.tcc.edlaine.domain.entities.DocumentEntity;
+import com.tcc.edlaine.domain.entities.FileVersion;
+
+// Publicado depois que uma versão (upload ou atualização) foi gravada; consumido fora da requisição
+public record DocumentVersionStored(DocumentEntity document, FileVersion version) {
+}
@@ -0,0 +1,7 @@
+package com.tcc.edlaine.repository;
+
+import com.tcc.edlaine.domain.entities.DocumentContent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface DocumentContentRepository extends MongoRepository<DocumentContent, String> {
+}
@@ -2,13 +2,45 @@ package com.tcc.edlaine.repository;
 
 import com.tcc.edlaine.domain.entities.DocumentEntity;
 import com.tcc.edlaine.domain.enums.DocumentType;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
-public interface DocumentRepository extends MongoRepository<DocumentEntity, String> {
-    List<DocumentEntity> findByCustomerEmail(String customerEmail);
-    Optional<DocumentEntity> findByVersionsFileId(String fileId);
-    List<DocumentEntity> findByType(DocumentType type);
+public interface DocumentRepository extends MongoRepository<DocumentEntity, String>, DocumentRepositoryCustom {
+
+    // Projeção das listagens: apenas os campos do resumo e a última versão
+    String SUMMARY_FIELDS = "{ 'filename': 1, 'type': 1, 'createdAt': 1, 'latestVersion': 1 }";
+
+    @Query(value = "{ 'customerEmail': ?0 }", fields = SUMMARY_FIELDS)
+    List<DocumentEntity> findSummariesByCustomerEmail(String customerEmail, Pageable pageable);
+
+    @Query(value = "{ 'customerEmail': ?0, '_id': { '$lt': ?1 } }", fields = SUMMARY_FIELDS)
+    List<DocumentEntity> findSummariesByCustomerEmailAndIdLessThan(String customerEmail, ObjectId id, Pageable pageable);
+
+    @Query(value = "{ 'type': ?0 }", fields = SUMMARY_FIELDS)
+    List<DocumentEntity> findSummariesByType(DocumentType type, Pageable pageable);
+
+    @Query(value = "{ 'type': ?0, '_id': { '$lt': ?1 } }", fields = SUMMARY_FIELDS)
+    List<DocumentEntity> findSummariesByTypeAndIdLessThan(DocumentType type, ObjectId id, Pageable pageable);
+
+    @Query(value = "{}", fields = SUMMARY_FIELDS)
+    List<DocumentEntity> findAllSummaries(Pageable pageable);
+
+    @Query(value = "{ '_id': { '$lt': ?0 } }", fields = SUMMARY_FIELDS)
+    List<DocumentEntity> findSummariesByIdLessThan(ObjectId id, Pageable pageable);
+
+    // Download em lote: metadados de todos os documentos em uma única consulta
+    @Query(value = "{ '_id': { '$in': ?0 } }", fields = SUMMARY_FIELDS)
+    List<DocumentEntity> findSummariesByIdIn(Collection<String> ids);
+
+    @Query(value = "{ 'type': ?0, 'createdAt': { '$gte': ?1, '$lt': ?2 } }", fields = SUMMARY_FIELDS)
+    List<DocumentEntity> findSummariesByTypeAndCreatedAtBetween(DocumentType type, LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    @Query(value = "{ 'createdAt': { '$gte': ?0, '$lt': ?1 } }", fields = SUMMARY_FIELDS)
+    List<DocumentEntity> findSummariesByCreatedAtBetween(LocalDateTime from, LocalDateTime to, Pageable pageable);
 }
@@ -0,0 +1,10 @@
+package com.tcc.edlaine.repository;
+
+import com.tcc.edlaine.domain.entities.DocumentEntity;
+import com.tcc.edlaine.domain.entities.FileVersion;
+
+public interface DocumentRepositoryCustom {
+    DocumentEntity allocateVersion(String documentId, String filename, String customerEmail);
+    void publishLatestVersion(FileVersion version);
+    boolean attachPreview(FileVersion version, String previewFileId);
+}
@@ -0,0 +1,71 @@
+package com.tcc.edlaine.repository;
+
+import com.mongodb.client.result.UpdateResult;
+import com.tcc.edlaine.domain.entities.DocumentEntity;
+import com.tcc.edlaine.domain.entities.FileVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.data.mongodb.core.FindAndModifyOptions.options;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@RequiredArgsConstructor
+public class DocumentRepositoryImpl implements DocumentRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    // Reserva a próxima sequência de versão com um único findAndModify ($inc), sem ler e regravar o documento
+    @Override
+    public DocumentEntity allocateVersion(String documentId, String filename, String customerEmail) {
+        return mongoTemplate.findAndModify(query(where("_id").is(documentId)),
+                new Update()
+                        .inc("versionCount", 1)
+                        .inc("revision", 1)
+                        .set("filename", filename)
+                        .set("customerEmail", customerEmail)
+                        .set("createdAt", LocalDateTime.now()),
+                options().returnNew(true),
+                DocumentEntity.class);
+    }
+
+    // Só avança a última versão: uploads concorrentes que terminam fora de ordem não regridem latestVersion
+    @Override
+    public void publishLatestVersion(FileVersion version) {
+        Criteria olderLatest = new Criteria().orOperator(
+                where("latestVersion").exists(false),
+                where("latestVersion.sequence").lt(version.getSequence()));
+
+        UpdateResult result = mongoTemplate.updateFirst(query(where("_id").is(version.getDocumentId()).andOperator(olderLatest)),
+                new Update().set("latestVersion", version).inc("revision", 1),
+                DocumentEntity.class);
+
+        if (result.getMatchedCount() == 0) {
+            // Versão antiga chegando depois: a lista de versões mudou, então a revisão (ETag) também precisa mudar
+            mongoTemplate.updateFirst(query(where("_id").is(version.getDocumentId())),
+                    new Update().inc("revision", 1),
+                    DocumentEntity.class);
+        }
+    }
+
+    // Grava a prévia na versão e, se ela ainda for a última, na cópia embutida em latestVersion.
+    // false quando a versão foi apagada enquanto a prévia era gerada: quem chama descarta o blob da prévia
+    @Override
+    public boolean attachPreview(FileVersion version, String previewFileId) {
+        UpdateResult result = mongoTemplate.updateFirst(query(where("_id").is(version.getId())),
+                new Update().set("previewFileId", previewFileId),
+                FileVersion.class);
+        if (result.getMatchedCount() == 0) {
+            return false;
+        }
+
+        mongoTemplate.updateFirst(query(where("_id").is(version.getDocumentId()).and("latestVersion.sequence").is(version.getSequence())),
+                new Update().set("latestVersion.previewFileId", previewFileId).inc("revision", 1),
+                DocumentEntity.class);
+        return true;
+    }
+}
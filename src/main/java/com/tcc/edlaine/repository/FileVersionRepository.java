@@ -0,0 +1,18 @@
+package com.tcc.edlaine.repository;
+
+import com.tcc.edlaine.domain.entities.FileVersion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface FileVersionRepository extends MongoRepository<FileVersion, String> {
+    Optional<FileVersion> findFirstByFileId(String fileId);
+    Optional<FileVersion> findByDocumentIdAndSequence(String documentId, int sequence);
+    List<FileVersion> findByDocumentId(String documentId, Pageable pageable);
+    List<FileVersion> findByDocumentIdAndSequenceGreaterThan(String documentId, int sequence, Pageable pageable);
+    Stream<FileVersion> streamByDocumentId(String documentId);
+    void deleteByDocumentId(String documentId);
+}
@@ -0,0 +1,14 @@
+package com.tcc.edlaine.repository;
+
+import com.tcc.edlaine.domain.entities.SharedRecord;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface SharedRecordRepository extends MongoRepository<SharedRecord, String> {
+    List<SharedRecord> findByDocumentId(String documentId, Pageable pageable);
+    List<SharedRecord> findByDocumentIdAndIdGreaterThan(String documentId, ObjectId id, Pageable pageable);
+    void deleteByDocumentId(String documentId);
+}
@@ -1,8 +1,11 @@
 package com.tcc.edlaine.repository;
 
 import com.tcc.edlaine.domain.entities.UserEntity;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends MongoRepository<UserEntity, String> {
@@ -10,4 +13,6 @@ public interface UserRepository extends MongoRepository<UserEntity, String> {
     boolean existsByEmail(String email);
     Optional<UserEntity> findByUsername(String username);
     Optional<UserEntity> findByCpf(String cpf);
+    List<UserEntity> findAllBy(Pageable pageable);
+    List<UserEntity> findByIdLessThan(ObjectId id, Pageable pageable);
 }
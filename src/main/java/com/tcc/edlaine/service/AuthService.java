@@ -1,15 +1,19 @@
 package com.tcc.edlaine.service;
 
+import com.tcc.edlaine.crosscutting.exceptions.general.TooManyRequestsException;
 import com.tcc.edlaine.crosscutting.exceptions.general.UserDuplicatedKeyException;
 import com.tcc.edlaine.crosscutting.exceptions.user.UserAccessDenied;
 import com.tcc.edlaine.crosscutting.exceptions.user.UserBadRequest;
 import com.tcc.edlaine.crosscutting.exceptions.user.UserNotFound;
 import com.tcc.edlaine.crosscutting.utils.JwtTokenProvider;
+import com.tcc.edlaine.crosscutting.utils.TokenRevocationRegistry;
 import com.tcc.edlaine.domain.entities.UserEntity;
 import com.tcc.edlaine.domain.enums.PermissionLevel;
 import com.tcc.edlaine.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,7 +23,6 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Objects;
@@ -29,24 +32,34 @@ import java.util.Objects;
 public class AuthService implements UserDetailsService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final AuthenticatedUserCache authenticatedUserCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Value("${custom.auth.claims-authorization.enabled}")
+    private boolean claimsAuthorizationEnabled;
 
     @Autowired
     public AuthService(UserRepository userRepository,
-                       PasswordEncoder passwordEncoder,
+                       PasswordHashingService passwordHashingService,
                        JwtTokenProvider jwtTokenProvider,
-                       AuthenticationManager authenticationManager) {
+                       AuthenticationManager authenticationManager,
+                       AuthenticatedUserCache authenticatedUserCache,
+                       TokenRevocationRegistry tokenRevocationRegistry) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtTokenProvider = jwtTokenProvider;
         this.authenticationManager = authenticationManager;
+        this.authenticatedUserCache = authenticatedUserCache;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
     }
 
     public String authenticate(String email, String password) {
         log.info("Initializing authentication for customer with email: {}", email);
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(email, password));
+        passwordHashingService.execute("authenticate",
+                () -> authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(email, password)));
 
         UserEntity user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found!"));
@@ -54,13 +67,15 @@ public class AuthService implements UserDetailsService {
         return generateToken(user);
     }
 
+    // A senha acabou de passar pelo BCrypt: o token sai direto, sem um segundo hash que poderia receber 429
+    // depois de a conta já existir (toda nova tentativa cairia no e-mail duplicado)
     public String registerAuth(UserEntity user) {
-        String psw = user.getPassword();
         try{
-            user.setPassword(encriptPassword(psw));
+            user.setPassword(encriptPassword(user.getPassword()));
             user.setPermissionLevel(PermissionLevel.SUPER_ADMIN);
-            userRepository.save(user);
-            return authenticate(user.getEmail(), psw);
+            return generateToken(userRepository.save(user));
+        }catch (TooManyRequestsException e) {
+            throw e;
         }catch (DuplicateKeyException e) {
             log.error("Error registering user with duplicated ->: {}", user.getEmail());
             throw new UserDuplicatedKeyException("Error registering user with duplicated -> " + e.getMessage());
@@ -71,14 +86,14 @@ public class AuthService implements UserDetailsService {
     }
 
     public HttpStatus register(UserEntity user) {
-        String psw = user.getPassword();
         try{
-            user.setPassword(encriptPassword(psw));
+            user.setPassword(encriptPassword(user.getPassword()));
             user.setPermissionLevel(PermissionLevel.GUEST);
             user.setActive(true);
             userRepository.save(user);
-            authenticate(user.getEmail(), psw);
             return HttpStatus.OK;
+        }catch (TooManyRequestsException e) {
+            throw e;
         }catch (DuplicateKeyException e) {
             log.error("Error registering user with duplicated ->: {}", user.getEmail());
             throw new UserDuplicatedKeyException("Error registering user with duplicated -> " + e.getMessage());
@@ -103,12 +118,55 @@ public class AuthService implements UserDetailsService {
     public UserEntity getAuthenticatedUser() {
         log.info("Initializing user authentication");
         String userEmail = SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString();
-        return userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new UserNotFound("userEmail {" + userEmail + "} notFound"));
+        UserEntity user = authenticatedUserCache.get(userEmail, email -> userRepository.findByEmail(email).orElse(null));
+        if (user == null) {
+            throw new UserNotFound("userEmail {" + userEmail + "} notFound");
+        }
+        return user;
+    }
+
+    /**
+     * Usuário montado a partir das claims já verificadas do token, sem ler a coleção users.
+     * Usado nas rotas de leitura; a revogação (tokenVersion) já foi checada no filtro.
+     * Tokens antigos, sem as claims necessárias, caem na busca normal.
+     */
+    public UserEntity getAuthorizedUser() {
+        Claims claims = JwtTokenProvider.getAuthenticatedClaims();
+        if (!claimsAuthorizationEnabled || claims == null
+                || claims.get("role") == null || claims.get("active") == null) {
+            return getAuthenticatedUser();
+        }
+
+        return userFromClaims(claims);
+    }
+
+    // Usuário montado só com as claims do token (sem ler users); também usado pela API reativa
+    public static UserEntity userFromClaims(Claims claims) {
+        UserEntity user = new UserEntity(
+                claims.get("name", String.class),
+                null,
+                claims.getSubject(),
+                null,
+                PermissionLevel.valueOf(claims.get("role", String.class)),
+                claims.get("active", Boolean.class)
+        );
+        user.setId(claims.get("userId", String.class));
+        user.setTokenVersion(JwtTokenProvider.getTokenVersion(claims));
+        return user;
+    }
+
+    // Invalida os tokens já emitidos para o usuário (mudança de status ou permissão)
+    public void revokeTokens(String email, int currentTokenVersion) {
+        tokenRevocationRegistry.revoke(email, currentTokenVersion);
+    }
+
+    // Chamado após qualquer escrita em usuários (status, permissão, senha, e-mail)
+    public void evictAuthenticatedUser(String email) {
+        authenticatedUserCache.invalidate(email);
     }
 
     public String encriptPassword(String psw) {
-        return passwordEncoder.encode(psw);
+        return passwordHashingService.encode(psw);
     }
 
     public String generateToken(UserEntity user) {
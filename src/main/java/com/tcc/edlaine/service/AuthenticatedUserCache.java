@@ -0,0 +1,57 @@
+package com.tcc.edlaine.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tcc.edlaine.domain.entities.UserEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+// Cache limitado (tamanho e TTL) do usuário autenticado por e-mail, evitando um findByEmail por requisição
+@Component
+public class AuthenticatedUserCache {
+
+    private final Cache<String, UserEntity> cache;
+
+    public AuthenticatedUserCache(@Value("${custom.cache.users.max-size}") long maxSize,
+                                  @Value("${custom.cache.users.ttl}") Duration ttl,
+                                  MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "authenticatedUsers");
+    }
+
+    // Devolve uma cópia: os chamadores alteram a entidade (ex.: setPassword(null)) antes de responder
+    public UserEntity get(String email, Function<String, UserEntity> loader) {
+        UserEntity cached = cache.get(email, loader);
+        return cached == null ? null : copyOf(cached);
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+
+    private static UserEntity copyOf(UserEntity user) {
+        UserEntity copy = new UserEntity(
+                user.getUsername(),
+                user.getCpf(),
+                user.getEmail(),
+                user.getPassword(),
+                user.getPermissionLevel(),
+                user.isActive()
+        );
+        copy.setId(user.getId());
+        copy.setTokenVersion(user.getTokenVersion());
+        copy.setTokenRevokedAt(user.getTokenRevokedAt());
+        return copy;
+    }
+}
@@ -0,0 +1,277 @@
+package com.tcc.edlaine.service;
+
+import com.tcc.edlaine.crosscutting.exceptions.file.FileUnprocessableEntity;
+import com.tcc.edlaine.crosscutting.utils.SizeLimitedInputStream;
+import com.tcc.edlaine.domain.dto.BatchUploadItem;
+import com.tcc.edlaine.domain.dto.StoredFile;
+import com.tcc.edlaine.domain.entities.DocumentEntity;
+import com.tcc.edlaine.domain.entities.FileVersion;
+import com.tcc.edlaine.domain.entities.UserEntity;
+import com.tcc.edlaine.domain.enums.DocumentType;
+import com.tcc.edlaine.domain.events.DocumentVersionStored;
+import com.tcc.edlaine.repository.DocumentRepository;
+import com.tcc.edlaine.repository.FileVersionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Upload de vários arquivos numa requisição (partes multipart e/ou ZIPs expandidos durante a leitura).
+ * Cada entrada é validada isoladamente, os blobs vão para o GridFS em paralelo num pool limitado
+ * e documentos e versões são gravados com um único insert em lote por coleção.
+ */
+@Slf4j
+@Service
+public class BatchUploadService {
+
+    private final FileStorageService fileStorageService;
+    private final DocumentRepository documentRepository;
+    private final FileVersionRepository fileVersionRepository;
+    private final AuthService authService;
+    private final FileMetrics fileMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolExecutor executor;
+    private final int maxEntries;
+    private final long maxEntrySize;
+    private final long maxTotalSize;
+
+    public BatchUploadService(FileStorageService fileStorageService,
+                              DocumentRepository documentRepository,
+                              FileVersionRepository fileVersionRepository,
+                              AuthService authService,
+                              FileMetrics fileMetrics,
+                              ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry,
+                              @Value("${custom.upload.batch.parallelism}") int parallelism,
+                              @Value("${custom.upload.batch.max-entries}") int maxEntries,
+                              @Value("${custom.upload.batch.max-entry-size}") DataSize maxEntrySize,
+                              @Value("${custom.upload.batch.max-total-size}") DataSize maxTotalSize) {
+        this.fileStorageService = fileStorageService;
+        this.documentRepository = documentRepository;
+        this.fileVersionRepository = fileVersionRepository;
+        this.authService = authService;
+        this.fileMetrics = fileMetrics;
+        this.eventPublisher = eventPublisher;
+        this.maxEntries = maxEntries;
+        this.maxEntrySize = maxEntrySize.toBytes();
+        this.maxTotalSize = maxTotalSize.toBytes();
+        // Sem fila: com o pool ocupado a própria thread da requisição grava o blob, o que segura a leitura
+        // do ZIP e limita a quantidade de arquivos temporários em disco
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(),
+                new CustomizableThreadFactory("batch-upload-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        meterRegistry.gauge("file.upload.batch.active", executor, ThreadPoolExecutor::getActiveCount);
+    }
+
+    @FileOperation("upload_batch")
+    public ResponseEntity<List<BatchUploadItem>> uploadFiles(List<MultipartFile> files, String type) {
+        try {
+            UserEntity user = authService.getAuthenticatedUser();
+            AuthService.validateGuestAccess(user);
+
+            DocumentType documentType = DocumentType.valueOf(type);
+            fileMetrics.type(documentType);
+            FileService.validateUserPermissionForDocumentType(user, documentType);
+
+            List<PendingUpload> uploads = new ArrayList<>();
+            try {
+                long expandedBytes = 0;
+                for (MultipartFile file : files) {
+                    if (isZip(file.getOriginalFilename())) {
+                        expandedBytes = expandZip(file, uploads, expandedBytes);
+                    } else {
+                        uploads.add(submit(uploads, file.getOriginalFilename(), file, null));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                discard(uploads);
+                throw e;
+            }
+
+            return ResponseEntity.ok(saveDocuments(uploads, user, type));
+        } catch (FileUnprocessableEntity e) {
+            log.error("Invalid batch upload: {}", e.getMessage());
+            throw e;
+        } catch (HttpClientErrorException e) {
+            log.error("Failed to upload batch: {}", e.getMessage());
+            throw new FileUnprocessableEntity("Failed to upload batch. Details: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error while uploading batch: {}", e.getMessage());
+            throw new RuntimeException("An unexpected error occurred while uploading the batch. Details: " + e.getMessage());
+        }
+    }
+
+    // As entradas do ZIP são lidas em sequência; cada uma vai para um arquivo temporário e segue para o pool.
+    // Cada entrada tem o limite de um arquivo multipart e o total descompactado da requisição também é limitado
+    // (um ZIP pequeno pode expandir para muito mais que o tamanho da requisição)
+    private long expandZip(MultipartFile file, List<PendingUpload> uploads, long expandedBytes) throws IOException {
+        try (ZipInputStream zip = new ZipInputStream(file.getInputStream())) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                if (entry.isDirectory() || entry.getName().startsWith("__MACOSX/")) {
+                    continue;
+                }
+
+                String fileName = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+                PendingUpload invalid = validate(uploads, fileName);
+                if (invalid != null) {
+                    uploads.add(invalid);
+                    continue;
+                }
+
+                long remaining = maxTotalSize - expandedBytes;
+                long limit = Math.min(maxEntrySize, remaining);
+                Path tempFile = Files.createTempFile("batch-upload-", ".tmp");
+                try {
+                    expandedBytes += Files.copy(new SizeLimitedInputStream(zip, limit), tempFile, StandardCopyOption.REPLACE_EXISTING);
+                } catch (FileUnprocessableEntity e) {
+                    Files.deleteIfExists(tempFile);
+                    if (remaining <= maxEntrySize) {
+                        throw new FileUnprocessableEntity("A batch upload accepts at most " + maxTotalSize + " bytes of uncompressed files.");
+                    }
+                    expandedBytes += limit; // O trecho já descompactado conta para o total
+                    uploads.add(PendingUpload.failed(fileName, e.getMessage()));
+                    continue;
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(tempFile);
+                    throw e;
+                }
+
+                uploads.add(submit(uploads, fileName, () -> Files.newInputStream(tempFile), tempFile));
+            }
+        }
+        return expandedBytes;
+    }
+
+    private PendingUpload submit(List<PendingUpload> uploads, String fileName, InputStreamSource source, Path tempFile) {
+        PendingUpload invalid = tempFile == null ? validate(uploads, fileName) : null;
+        if (invalid != null) {
+            return invalid;
+        }
+
+        Future<StoredFile> storedFile = executor.submit(() -> {
+            try (InputStream inputStream = source.getInputStream()) {
+                return fileStorageService.saveFile(fileName, inputStream);
+            } finally {
+                if (tempFile != null) {
+                    Files.deleteIfExists(tempFile);
+                }
+            }
+        });
+        return new PendingUpload(fileName, storedFile, null);
+    }
+
+    // Extensão inválida vira falha só daquela entrada; excesso de entradas recusa o lote inteiro
+    private PendingUpload validate(List<PendingUpload> uploads, String fileName) {
+        if (uploads.size() >= maxEntries) {
+            throw new FileUnprocessableEntity("A batch upload accepts at most " + maxEntries + " files.");
+        }
+        try {
+            FileService.validateFileExtension(fileName);
+            return null;
+        } catch (FileUnprocessableEntity e) {
+            return PendingUpload.failed(fileName, e.getMessage());
+        }
+    }
+
+    private List<BatchUploadItem> saveDocuments(List<PendingUpload> uploads, UserEntity user, String type) throws InterruptedException {
+        List<BatchUploadItem> results = new ArrayList<>();
+        List<DocumentEntity> documents = new ArrayList<>();
+        List<FileVersion> versions = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (PendingUpload upload : uploads) {
+            if (upload.error() != null) {
+                results.add(BatchUploadItem.failed(upload.fileName(), upload.error()));
+                continue;
+            }
+            try {
+                StoredFile storedFile = upload.storedFile().get();
+                DocumentEntity document = new DocumentEntity(upload.fileName(), user.getEmail(), type);
+                versions.add(document.addVersion(storedFile.getFileId(), upload.fileName(), now, storedFile.getContentHash()));
+                documents.add(document);
+                results.add(BatchUploadItem.created(upload.fileName(), document.getId()));
+            } catch (ExecutionException e) {
+                log.error("Failed to store batch entry {}: {}", upload.fileName(), e.getCause().getMessage());
+                results.add(BatchUploadItem.failed(upload.fileName(), e.getCause().getMessage()));
+            }
+        }
+
+        if (!documents.isEmpty()) {
+            try {
+                fileVersionRepository.insert(versions);
+                documentRepository.insert(documents);
+            } catch (RuntimeException e) {
+                // Insert ordenado: os documentos anteriores à falha já foram gravados e apontariam para versões apagadas
+                documentRepository.deleteAllById(documents.stream().map(DocumentEntity::getId).toList());
+                fileVersionRepository.deleteAll(versions);
+                versions.forEach(version -> fileStorageService.releaseFile(version.getFileId()));
+                throw e;
+            }
+            for (int i = 0; i < documents.size(); i++) {
+                eventPublisher.publishEvent(new DocumentVersionStored(documents.get(i), versions.get(i)));
+            }
+        }
+        log.info("Batch upload saved {} of {} files", documents.size(), uploads.size());
+        return results;
+    }
+
+    // Lote recusado no meio da leitura: espera os blobs já enviados e libera cada um
+    private void discard(List<PendingUpload> uploads) {
+        for (PendingUpload upload : uploads) {
+            if (upload.storedFile() == null) {
+                continue;
+            }
+            try {
+                fileStorageService.releaseFile(upload.storedFile().get().getFileId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | RuntimeException e) {
+                log.warn("Failed to discard batch entry {}: {}", upload.fileName(), e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isZip(String fileName) {
+        return fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".zip");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private record PendingUpload(String fileName, Future<StoredFile> storedFile, String error) {
+        static PendingUpload failed(String fileName, String error) {
+            return new PendingUpload(fileName, null, error);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.tcc.edlaine.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cache em disco local dos blobs, limitado em bytes (Caffeine, W-TinyLFU).
+ * O arquivo é preenchido enquanto o primeiro download lê o backend (GridFS ou outro BlobStore);
+ * os seguintes saem do disco sem consultar o backend. Blobs são imutáveis: só o deleteFile precisa invalidar.
+ */
+@Slf4j
+@Component
+public class BlobDiskCache {
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxFileSize;
+    private final Cache<String, CachedBlob> cache;
+    // Preenchimentos em andamento e se o blob foi invalidado (deleteFile) depois de começarem
+    private final ConcurrentMap<String, AtomicBoolean> filling = new ConcurrentHashMap<>();
+    private final Counter bytesFilled;
+
+    public BlobDiskCache(MeterRegistry meterRegistry,
+                         @Value("${custom.cache.blobs.enabled}") boolean enabled,
+                         @Value("${custom.cache.blobs.directory}") Path directory,
+                         @Value("${custom.cache.blobs.max-size}") DataSize maxSize,
+                         @Value("${custom.cache.blobs.max-file-size}") DataSize maxFileSize) throws IOException {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.maxFileSize = maxFileSize.toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String fileId, CachedBlob blob) -> (int) Math.min(blob.length(), Integer.MAX_VALUE))
+                .removalListener((String fileId, CachedBlob blob, RemovalCause cause) -> {
+                    if (blob != null && cause != RemovalCause.REPLACED) { // Substituição reaproveita o mesmo caminho
+                        deleteQuietly(blob.path());
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "blobs");
+        meterRegistry.gauge("blob.cache.size.bytes", cache, blobs -> blobs.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L));
+        this.bytesFilled = Counter.builder("blob.cache.bytes.filled")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        if (enabled) {
+            // O índice fica só em memória: arquivos de uma execução anterior não são reaproveitados
+            FileSystemUtils.deleteRecursively(directory);
+            Files.createDirectories(directory);
+        }
+    }
+
+    public CachedBlob get(String fileId) {
+        return enabled ? cache.getIfPresent(fileId) : null;
+    }
+
+    // Grava uma cópia enquanto o backend é lido; só entra no cache se o arquivo for lido inteiro, sem skip (Range)
+    public InputStream fill(BlobStore.BlobStat file, InputStream source) {
+        String fileId = file.blobId();
+        if (!enabled || file.length() > maxFileSize || cache.asMap().containsKey(fileId)
+                || filling.putIfAbsent(fileId, new AtomicBoolean()) != null) {
+            return source; // Já em cache ou outro download já está preenchendo este blob
+        }
+
+        try {
+            Path part = Files.createTempFile(directory, fileId, ".part");
+            return new FillingInputStream(source, file, part);
+        } catch (IOException e) {
+            filling.remove(fileId);
+            log.warn("Failed to start caching blob {}: {}", fileId, e.getMessage());
+            return source;
+        }
+    }
+
+    public InputStream open(CachedBlob blob) throws IOException {
+        return new FileChannelInputStream(FileChannel.open(blob.path(), StandardOpenOption.READ));
+    }
+
+    // Marca o preenchimento em andamento para que o close não devolva ao cache um blob já apagado
+    public void invalidate(String fileId) {
+        filling.computeIfPresent(fileId, (id, invalidated) -> {
+            invalidated.set(true);
+            return invalidated;
+        });
+        cache.invalidate(fileId);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        cache.invalidateAll();
+        if (enabled) {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete cached blob {}: {}", path, e.getMessage());
+        }
+    }
+
+    public record CachedBlob(String fileId, Path path, long length, long lastModified) {
+    }
+
+    private class FillingInputStream extends FilterInputStream {
+        private final BlobStore.BlobStat file;
+        private final Path part;
+        private final OutputStream copy;
+        private long written;
+        private boolean abandoned;
+        private boolean closed;
+
+        FillingInputStream(InputStream source, BlobStore.BlobStat file, Path part) throws IOException {
+            super(source);
+            this.file = file;
+            this.part = part;
+            this.copy = Files.newOutputStream(part);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1 && !abandoned) {
+                copy.write(value);
+                written++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0 && !abandoned) {
+                copy.write(buffer, offset, read);
+                written += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            abandoned = true; // Requisição com Range: a cópia ficaria com buracos
+            return super.skip(n);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            String fileId = file.blobId();
+            try {
+                super.close();
+            } finally {
+                try {
+                    copy.close();
+                    if (!abandoned && written == file.length()) {
+                        Path target = directory.resolve(fileId);
+                        Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                        // Mesmo bloqueio do invalidate: ou a marca já está lá, ou o invalidate remove a entrada depois
+                        filling.compute(fileId, (id, invalidated) -> {
+                            if (invalidated != null && invalidated.get()) {
+                                deleteQuietly(target);
+                            } else {
+                                cache.put(fileId, new CachedBlob(fileId, target, written, file.lastModified()));
+                                bytesFilled.increment(written);
+                            }
+                            return null;
+                        });
+                    } else {
+                        deleteQuietly(part); // Cliente desconectou ou leu só um trecho
+                    }
+                } catch (IOException e) {
+                    deleteQuietly(part);
+                    log.warn("Failed to cache blob {}: {}", fileId, e.getMessage());
+                } finally {
+                    filling.remove(fileId);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.tcc.edlaine.service;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Resource re-legível sobre um blob do BlobStore: cada getInputStream abre um novo stream,
+ * o que permite ao Spring MVC atender Range/multi-range. O skip dos backends pula direto para
+ * o trecho pedido (chunk de destino no GridFS, posição do canal no sistema de arquivos).
+ */
+public class BlobResource extends AbstractResource {
+
+    private final BlobStore blobStore;
+    private final BlobStore.BlobStat stat;
+    private final FileMetrics fileMetrics;
+    private final BlobDiskCache blobDiskCache;
+
+    public BlobResource(BlobStore blobStore, BlobStore.BlobStat stat, FileMetrics fileMetrics, BlobDiskCache blobDiskCache) {
+        this.blobStore = blobStore;
+        this.stat = stat;
+        this.fileMetrics = fileMetrics;
+        this.blobDiskCache = blobDiskCache;
+    }
+
+    // Leitura completa também preenche o cache em disco para os próximos downloads
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return fileMetrics.trackDownload(blobDiskCache.fill(stat, blobStore.open(stat.blobId(), 0)));
+    }
+
+    @Override
+    public long contentLength() {
+        return stat.length();
+    }
+
+    @Override
+    public long lastModified() {
+        return stat.lastModified();
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public String getDescription() {
+        return blobStore.name() + " blob [" + stat.blobId() + "]";
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof BlobResource that && stat.blobId().equals(that.stat.blobId()));
+    }
+
+    @Override
+    public int hashCode() {
+        return stat.blobId().hashCode();
+    }
+}
@@ -0,0 +1,47 @@
+package com.tcc.edlaine.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Backend dos bytes dos arquivos. O id (ObjectId em hexadecimal) é gerado pelo FileStorageService,
+ * então o mesmo blob mantém o id em qualquer backend e pode ser migrado sem tocar nos metadados.
+ */
+public interface BlobStore {
+
+    // Valor usado em custom.storage.backend
+    String name();
+
+    // Grava o stream inteiro e devolve o tamanho; em caso de falha nada fica visível com este id
+    long save(String blobId, String fileName, InputStream inputStream) throws IOException;
+
+    InputStream open(String blobId, long offset) throws IOException;
+
+    Optional<BlobStat> stat(String blobId) throws IOException;
+
+    // Ids ausentes ficam fora do mapa
+    default Map<String, BlobStat> stat(Collection<String> blobIds) throws IOException {
+        Map<String, BlobStat> stats = new HashMap<>();
+        for (String blobId : blobIds) {
+            Optional<BlobStat> stat = stat(blobId);
+            if (stat.isPresent()) {
+                stats.put(blobId, stat.get());
+            }
+        }
+        return stats;
+    }
+
+    // Idempotente: apagar um id inexistente não é erro
+    void delete(String blobId) throws IOException;
+
+    // Todos os ids do backend, para a migração; o stream precisa ser fechado
+    Stream<String> listIds() throws IOException;
+
+    record BlobStat(String blobId, long length, long lastModified) {
+    }
+}
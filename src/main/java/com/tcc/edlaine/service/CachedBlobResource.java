@@ -0,0 +1,65 @@
+package com.tcc.edlaine.service;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+
+// Blob servido do BlobDiskCache: mesmos metadados do BlobResource, sem consultar o backend
+public class CachedBlobResource extends AbstractResource {
+
+    private final BlobDiskCache blobDiskCache;
+    private final BlobDiskCache.CachedBlob blob;
+    private final FileMetrics fileMetrics;
+    private final InputStreamSource backend;
+
+    public CachedBlobResource(BlobDiskCache blobDiskCache, BlobDiskCache.CachedBlob blob, FileMetrics fileMetrics, InputStreamSource backend) {
+        this.blobDiskCache = blobDiskCache;
+        this.blob = blob;
+        this.fileMetrics = fileMetrics;
+        this.backend = backend;
+    }
+
+    // O arquivo só é aberto quando o Spring escreve o corpo (uma vez por trecho do Range):
+    // se o Caffeine o removeu nesse meio tempo, os bytes saem do backend
+    @Override
+    public InputStream getInputStream() throws IOException {
+        try {
+            return fileMetrics.trackCachedDownload(blobDiskCache.open(blob));
+        } catch (NoSuchFileException e) {
+            return backend.getInputStream();
+        }
+    }
+
+    @Override
+    public long contentLength() {
+        return blob.length();
+    }
+
+    @Override
+    public long lastModified() {
+        return blob.lastModified();
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Cached blob [" + blob.fileId() + "]";
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof CachedBlobResource that && blob.fileId().equals(that.blob.fileId()));
+    }
+
+    @Override
+    public int hashCode() {
+        return blob.fileId().hashCode();
+    }
+}
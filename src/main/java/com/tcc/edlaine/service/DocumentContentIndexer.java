@@ -0,0 +1,118 @@
+package com.tcc.edlaine.service;
+
+import com.tcc.edlaine.domain.entities.DocumentContent;
+import com.tcc.edlaine.domain.entities.DocumentEntity;
+import com.tcc.edlaine.domain.entities.FileVersion;
+import com.tcc.edlaine.domain.events.DocumentVersionStored;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Mantém document_contents atualizado a cada versão gravada, fora da thread da requisição.
+ * A extração só acontece quando o conteúdo muda; a busca nunca lê os blobs.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "custom.search.index.enabled", havingValue = "true", matchIfMissing = true)
+public class DocumentContentIndexer {
+
+    private final MongoTemplate mongoTemplate;
+    private final FileStorageService fileStorageService;
+    private final DocumentTextExtractor documentTextExtractor;
+    private final DataSize maxFileSize;
+
+    public DocumentContentIndexer(MongoTemplate mongoTemplate,
+                                  FileStorageService fileStorageService,
+                                  DocumentTextExtractor documentTextExtractor,
+                                  @Value("${custom.search.index.max-file-size}") DataSize maxFileSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.fileStorageService = fileStorageService;
+        this.documentTextExtractor = documentTextExtractor;
+        this.maxFileSize = maxFileSize;
+    }
+
+    @Async
+    @EventListener
+    public void onVersionStored(DocumentVersionStored event) {
+        DocumentEntity document = event.document();
+        FileVersion version = event.version();
+        try {
+            index(document, version);
+        } catch (Exception e) {
+            log.error("Failed to index document {} version {}: {}", document.getId(), version.getSequence(), e.getMessage());
+        }
+    }
+
+    private void index(DocumentEntity document, FileVersion version) throws Exception {
+        DocumentContent indexed = mongoTemplate.findById(document.getId(), DocumentContent.class);
+        if (indexed != null && indexed.getVersionSequence() >= version.getSequence()) {
+            return; // Evento atrasado de uma versão já substituída
+        }
+
+        Update update = new Update()
+                .set("filename", version.getFileName())
+                .set("type", document.getType())
+                .set("customerEmail", document.getCustomerEmail())
+                .set("createdAt", document.getCreatedAt())
+                .set("versionSequence", version.getSequence())
+                .set("contentHash", version.getContentHash())
+                .set("indexedAt", LocalDateTime.now());
+
+        // Mesmo conteúdo da versão anterior: atualiza só os metadados, sem reler o blob
+        if (indexed == null || version.getContentHash() == null || !version.getContentHash().equals(indexed.getContentHash())) {
+            update.set("text", extractText(version));
+        }
+
+        try {
+            // A condição na sequência impede que uma extração lenta sobrescreva uma versão mais nova
+            mongoTemplate.upsert(query(where("_id").is(document.getId()).and("versionSequence").lt(version.getSequence())),
+                    update, DocumentContent.class);
+            // Documento apagado durante a extração: o upsert recriou a entrada que o deleteDocumentById já tinha removido
+            if (!mongoTemplate.exists(query(where("_id").is(document.getId())), DocumentEntity.class)) {
+                mongoTemplate.remove(query(where("_id").is(document.getId())), DocumentContent.class);
+                log.debug("Discarded index of document {}: it no longer exists", document.getId());
+                return;
+            }
+            log.debug("Indexed document {} version {}", document.getId(), version.getSequence());
+        } catch (DuplicateKeyException e) {
+            log.debug("Document {} already indexed with a newer version", document.getId());
+        }
+    }
+
+    // Acima de max-file-size só o nome do arquivo é indexado
+    private String extractText(FileVersion version) throws IOException {
+        if (!documentTextExtractor.supports(version.getFileName())) {
+            return null;
+        }
+        long length = fileStorageService.statFile(version.getFileId())
+                .map(BlobStore.BlobStat::length)
+                .orElseThrow(() -> new IOException("Blob " + version.getFileId() + " not found"));
+        if (length > maxFileSize.toBytes()) {
+            log.debug("Skipping text of document {} version {}: {} bytes", version.getDocumentId(), version.getSequence(), length);
+            return null;
+        }
+
+        Path file = fileStorageService.copyToTempFile(version.getFileId(), ".index");
+        try {
+            return documentTextExtractor.extract(version.getFileName(), file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.tcc.edlaine.service;
+
+import com.tcc.edlaine.domain.entities.FileVersion;
+import com.tcc.edlaine.domain.events.DocumentVersionStored;
+import com.tcc.edlaine.repository.DocumentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Gera uma miniatura JPEG de cada versão (imagens e primeira página de PDFs) fora da requisição.
+ * As listagens mostram a prévia de poucos KB em vez de baixar o arquivo inteiro.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "custom.preview.enabled", havingValue = "true", matchIfMissing = true)
+public class DocumentPreviewGenerator {
+
+    private static final Set<String> PREVIEW_EXTENSIONS = Set.of("jpg", "jpeg", "png", "pdf");
+
+    private final FileStorageService fileStorageService;
+    private final DocumentRepository documentRepository;
+    private final int maxSize;
+    private final DataSize maxFileSize;
+
+    public DocumentPreviewGenerator(FileStorageService fileStorageService,
+                                    DocumentRepository documentRepository,
+                                    @Value("${custom.preview.max-size}") int maxSize,
+                                    @Value("${custom.preview.max-file-size}") DataSize maxFileSize) {
+        this.fileStorageService = fileStorageService;
+        this.documentRepository = documentRepository;
+        this.maxSize = maxSize;
+        this.maxFileSize = maxFileSize;
+    }
+
+    @Async
+    @EventListener
+    public void onVersionStored(DocumentVersionStored event) {
+        FileVersion version = event.version();
+        String extension = FileService.getFileExtension(version.getFileName());
+        if (!PREVIEW_EXTENSIONS.contains(extension)) {
+            return;
+        }
+        try {
+            long length = fileStorageService.statFile(version.getFileId())
+                    .map(BlobStore.BlobStat::length)
+                    .orElseThrow(() -> new IOException("Blob " + version.getFileId() + " not found"));
+            if (length > maxFileSize.toBytes()) {
+                log.debug("Skipping preview of document {} version {}: {} bytes", version.getDocumentId(), version.getSequence(), length);
+                return;
+            }
+
+            BufferedImage image = "pdf".equals(extension) ? renderFirstPage(version.getFileId()) : readImage(version.getFileId());
+            if (image == null) {
+                return;
+            }
+
+            String previewFileId = fileStorageService.savePreview("preview-" + version.getFileId() + ".jpg", toJpeg(fit(image)));
+            if (!documentRepository.attachPreview(version, previewFileId)) {
+                fileStorageService.deleteFile(previewFileId); // Versão apagada durante a geração
+                log.debug("Discarded preview {}: document {} version {} no longer exists", previewFileId, version.getDocumentId(), version.getSequence());
+                return;
+            }
+            log.debug("Preview {} generated for document {} version {}", previewFileId, version.getDocumentId(), version.getSequence());
+        } catch (Exception e) {
+            log.error("Failed to generate preview for document {} version {}: {}", version.getDocumentId(), version.getSequence(), e.getMessage());
+        }
+    }
+
+    // Subamostragem na leitura: uma foto de 40 MP não é decodificada inteira para virar 320 px
+    private BufferedImage readImage(String fileId) throws IOException {
+        try (InputStream inputStream = fileStorageService.openFile(fileId);
+             ImageInputStream imageInput = ImageIO.createImageInputStream(inputStream)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInput, true, true);
+                int step = Math.max(1, Math.max(reader.getWidth(0), reader.getHeight(0)) / maxSize);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Renderiza já na escala da miniatura em vez de renderizar a página em 300 dpi e reduzir depois.
+    // O PDF é aberto de uma cópia em disco, com cache temporário em arquivo: o heap não recebe o arquivo inteiro
+    private BufferedImage renderFirstPage(String fileId) throws IOException {
+        Path pdfFile = fileStorageService.copyToTempFile(fileId, ".pdf");
+        try (PDDocument pdf = Loader.loadPDF(pdfFile.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+            if (pdf.getNumberOfPages() == 0) {
+                return null;
+            }
+            PDRectangle box = pdf.getPage(0).getCropBox();
+            float scale = maxSize / Math.max(box.getWidth(), box.getHeight());
+            return new PDFRenderer(pdf).renderImage(0, scale, ImageType.RGB);
+        } finally {
+            Files.deleteIfExists(pdfFile);
+        }
+    }
+
+    // Cabe em maxSize x maxSize mantendo a proporção; fundo branco para PNG com transparência
+    private BufferedImage fit(BufferedImage image) {
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        BufferedImage preview = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = preview.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return preview;
+    }
+
+    private static byte[] toJpeg(BufferedImage image) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", output);
+        return output.toByteArray();
+    }
+}
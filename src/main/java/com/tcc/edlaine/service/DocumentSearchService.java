@@ -0,0 +1,68 @@
+package com.tcc.edlaine.service;
+
+import com.tcc.edlaine.crosscutting.exceptions.file.FileUnprocessableEntity;
+import com.tcc.edlaine.crosscutting.exceptions.general.ObjectBadRequestException;
+import com.tcc.edlaine.crosscutting.utils.CursorPagination;
+import com.tcc.edlaine.domain.dto.CursorPage;
+import com.tcc.edlaine.domain.dto.DocumentSearchHit;
+import com.tcc.edlaine.domain.entities.DocumentContent;
+import com.tcc.edlaine.domain.entities.UserEntity;
+import com.tcc.edlaine.domain.enums.DocumentType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Busca por conteúdo no índice de texto de document_contents (preenchido pelo DocumentContentIndexer)
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentSearchService {
+
+    private final MongoTemplate mongoTemplate;
+    private final AuthService authService;
+    private final FileMetrics fileMetrics;
+
+    // Ordenado por relevância: o cursor é a posição do próximo resultado, não um _id
+    @FileOperation("search")
+    public ResponseEntity<CursorPage<DocumentSearchHit>> search(String text, String cursor, Integer size) {
+        try {
+            if (text == null || text.isBlank()) {
+                throw new ObjectBadRequestException("Provide a search text.");
+            }
+
+            UserEntity user = authService.getAuthorizedUser();
+            AuthService.validateGuestAccess(user);
+            int pageSize = CursorPagination.pageSize(size);
+            Integer offset = CursorPagination.parseSequenceCursor(cursor);
+            int skip = offset == null ? 0 : Math.max(offset, 0);
+
+            Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text)).sortByScore();
+            if (!FileService.isPrivilegedUser(user)) {
+                fileMetrics.type(DocumentType.PUBLIC);
+                query.addCriteria(where("type").is(DocumentType.PUBLIC));
+            }
+            query.fields().exclude("text");
+            query.skip(skip).limit(pageSize + 1);
+
+            List<DocumentSearchHit> hits = mongoTemplate.find(query, DocumentContent.class).stream()
+                    .map(DocumentSearchHit::from)
+                    .toList();
+            return ResponseEntity.ok(CursorPage.of(hits, pageSize, hit -> String.valueOf(skip + pageSize)));
+        } catch (ObjectBadRequestException e) {
+            log.error("Invalid search request: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to search documents: {}", e.getMessage());
+            throw new FileUnprocessableEntity("Failed to search documents. Details: " + e.getMessage());
+        }
+    }
+}
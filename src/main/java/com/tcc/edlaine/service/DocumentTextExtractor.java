@@ -0,0 +1,263 @@
+package com.tcc.edlaine.service;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.poi.extractor.ExtractorFactory;
+import org.apache.poi.extractor.POITextExtractor;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Extrai o texto de PDF (PDFBox), Word/Excel (POI) e CSV (commons-csv) a partir de uma cópia local do blob.
+ * PDF é aberto do arquivo com cache em disco e lido até max-pages; docx e xlsx são lidos por SAX e CSV linha a linha,
+ * parando ao atingir max-chars. doc e xls (formato binário) só são lidos inteiros, limitados pelo tamanho do arquivo.
+ */
+@Component
+public class DocumentTextExtractor {
+
+    private static final Set<String> EXTENSIONS = Set.of("pdf", "csv", "doc", "docx", "xls", "xlsx");
+
+    private final int maxChars;
+    private final int maxPages;
+
+    public DocumentTextExtractor(@Value("${custom.search.index.max-chars}") int maxChars,
+                                 @Value("${custom.search.index.max-pages}") int maxPages) {
+        this.maxChars = maxChars;
+        this.maxPages = maxPages;
+        ExtractorFactory.setAllThreadsPreferEventExtractors(true); // xls lido por eventos, sem montar a planilha
+    }
+
+    // Imagens não têm texto: nem são copiadas para extração
+    public boolean supports(String fileName) {
+        return EXTENSIONS.contains(FileService.getFileExtension(fileName));
+    }
+
+    // null quando o formato não tem texto (imagens)
+    public String extract(String fileName, Path file) throws IOException {
+        BoundedWriter text = new BoundedWriter(maxChars);
+        try {
+            switch (FileService.getFileExtension(fileName)) {
+                case "pdf" -> extractPdf(file, text);
+                case "csv" -> extractCsv(file, text);
+                case "docx" -> extractDocx(file, text);
+                case "xlsx" -> extractXlsx(file, text);
+                case "doc", "xls" -> extractOle2(file, text);
+                default -> {
+                    return null;
+                }
+            }
+        } catch (TextLimitReached e) {
+            // Limite atingido: indexa o começo do arquivo
+        }
+        return text.toString();
+    }
+
+    private void extractPdf(Path file, Writer text) throws IOException {
+        try (PDDocument pdf = Loader.loadPDF(file.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setEndPage(maxPages);
+            stripper.writeText(pdf, text);
+        }
+    }
+
+    private static void extractCsv(Path file, Writer text) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             CSVParser parser = CSVFormat.DEFAULT.parse(reader)) {
+            for (CSVRecord record : parser) {
+                for (String value : record) {
+                    text.write(value);
+                    text.write(' ');
+                }
+                text.write('\n');
+            }
+        }
+    }
+
+    // Texto dos parágrafos (w:t) do document.xml, sem montar o XWPFDocument
+    private static void extractDocx(Path file, Writer text) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            List<PackagePart> documents = pkg.getPartsByRelationshipType(PackageRelationshipTypes.CORE_DOCUMENT);
+            if (documents.isEmpty()) {
+                return;
+            }
+            try (InputStream inputStream = documents.get(0).getInputStream()) {
+                parse(inputStream, new DocxTextHandler(text));
+            }
+        } catch (OpenXML4JException e) {
+            throw new IOException(e);
+        }
+    }
+
+    // Célula a célula pela API de eventos: a planilha nunca fica inteira em memória
+    private static void extractXlsx(Path file, Writer text) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            XlsxTextHandler handler = new XlsxTextHandler(text);
+            for (Iterator<InputStream> sheets = reader.getSheetsData(); sheets.hasNext(); ) {
+                try (InputStream sheet = sheets.next()) {
+                    parse(sheet, new XSSFSheetXMLHandler(styles, strings, handler, false));
+                }
+            }
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void extractOle2(Path file, Writer text) throws IOException {
+        try (POITextExtractor extractor = ExtractorFactory.createExtractor(file.toFile())) {
+            text.write(extractor.getText());
+        }
+    }
+
+    private static void parse(InputStream inputStream, ContentHandler handler) throws IOException {
+        try {
+            XMLReader reader = XMLHelper.newXMLReader();
+            reader.setContentHandler(handler);
+            reader.parse(new InputSource(inputStream));
+        } catch (SAXException e) {
+            if (e.getCause() instanceof TextLimitReached limit) {
+                throw limit;
+            }
+            throw new IOException(e);
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void write(Writer text, String value) {
+        try {
+            text.write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class DocxTextHandler extends DefaultHandler {
+        private final Writer text;
+        private boolean inText;
+
+        DocxTextHandler(Writer text) {
+            this.text = text;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            inText = "t".equals(localName);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            inText = false;
+            if ("p".equals(localName)) {
+                write(text, "\n");
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inText) {
+                write(text, new String(ch, start, length));
+            }
+        }
+    }
+
+    private static class XlsxTextHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final Writer text;
+
+        XlsxTextHandler(Writer text) {
+            this.text = text;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            write(text, "\n");
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (formattedValue != null) {
+                write(text, formattedValue);
+                write(text, " ");
+            }
+        }
+    }
+
+    // Acumula até o limite e interrompe a extração em seguida
+    private static class BoundedWriter extends Writer {
+        private final StringBuilder text = new StringBuilder();
+        private final int maxChars;
+
+        BoundedWriter(int maxChars) {
+            this.maxChars = maxChars;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            int remaining = maxChars - text.length();
+            text.append(buffer, offset, Math.min(length, remaining));
+            if (length >= remaining) {
+                throw new TextLimitReached();
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+
+    private static class TextLimitReached extends RuntimeException {
+        TextLimitReached() {
+            super(null, null, false, false);
+        }
+    }
+}
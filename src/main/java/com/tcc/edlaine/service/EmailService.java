@@ -1,9 +1,17 @@
 package com.tcc.edlaine.service;
 
+import com.tcc.edlaine.domain.entities.SharedRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
 @Service
 public class EmailService {
 
@@ -17,10 +25,37 @@ public class EmailService {
 
     public void sendEmail(String toEmail,
                           String fileName) {
+        emailSender.send(buildMessage(toEmail, fileName));
+    }
+
+    // Envia o lote numa única conexão SMTP; retorna as falhas indexadas pelo id do compartilhamento
+    public Map<String, Exception> sendShareNotifications(List<SharedRecord> records) {
+        SimpleMailMessage[] messages = records.stream()
+                .map(record -> buildMessage(record.getEmail(), record.getFileName()))
+                .toArray(SimpleMailMessage[]::new);
+
+        Map<String, Exception> failures = new HashMap<>();
+        try {
+            emailSender.send(messages);
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            for (int i = 0; i < messages.length; i++) {
+                if (failedMessages.isEmpty() || failedMessages.containsKey(messages[i])) {
+                    failures.put(records.get(i).getId(), failedMessages.getOrDefault(messages[i], e));
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to send share notifications batch: {}", e.getMessage());
+            records.forEach(record -> failures.put(record.getId(), e));
+        }
+        return failures;
+    }
+
+    private SimpleMailMessage buildMessage(String toEmail, String fileName) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(toEmail);
         message.setSubject(SUBJECT_EMAIL_SENDER);
         message.setText(MESSAGE_TEXT_EMAIL_SENDER + fileName);
-        emailSender.send(message);
+        return message;
     }
-}
\ No newline at end of file
+}
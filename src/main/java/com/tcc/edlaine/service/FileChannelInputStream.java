@@ -0,0 +1,33 @@
+package com.tcc.edlaine.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+// transferTo usa FileChannel.transferTo. O destino é o ServletOutputStream embrulhado por Channels.newChannel,
+// que não é um socket: os bytes passam por um buffer no heap. O ganho é ler do page cache sem ida ao Mongo, não zero-copy
+class FileChannelInputStream extends FilterInputStream {
+
+    private final FileChannel channel;
+
+    FileChannelInputStream(FileChannel channel) {
+        super(Channels.newInputStream(channel));
+        this.channel = channel;
+    }
+
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        long position = channel.position();
+        long count = channel.size() - position;
+        WritableByteChannel target = Channels.newChannel(out);
+        long transferred = 0;
+        while (transferred < count) {
+            transferred += channel.transferTo(position + transferred, count - transferred, target);
+        }
+        channel.position(position + transferred);
+        return transferred;
+    }
+}
@@ -0,0 +1,170 @@
+package com.tcc.edlaine.service;
+
+import com.tcc.edlaine.domain.enums.DocumentType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Métricas das operações de arquivo: timer file.operation (operation, outcome, type, exception) em volta
+ * dos métodos @FileOperation, bytes lidos/gravados no GridFS, tamanho dos uploads e downloads em andamento.
+ */
+@Aspect
+@Component
+public class FileMetrics {
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter bytesWritten;
+    private final Counter bytesRead;
+    private final Counter cacheBytesServed;
+    private final DistributionSummary uploadSize;
+    private final AtomicInteger downloadsInFlight = new AtomicInteger();
+    private final ThreadLocal<OperationContext> currentOperation = new ThreadLocal<>();
+
+    public FileMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.bytesWritten = Counter.builder("gridfs.bytes.written")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.bytesRead = Counter.builder("gridfs.bytes.read")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.cacheBytesServed = Counter.builder("blob.cache.bytes.served")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.uploadSize = DistributionSummary.builder("file.upload.size")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        meterRegistry.gauge("file.downloads.in.flight", downloadsInFlight);
+    }
+
+    // Cronometra os métodos anotados com @FileOperation; chamadas aninhadas mantêm cada uma o seu contexto
+    @Around("@annotation(fileOperation)")
+    public Object record(ProceedingJoinPoint joinPoint, FileOperation fileOperation) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        OperationContext previous = currentOperation.get();
+        OperationContext context = new OperationContext();
+        currentOperation.set(context);
+        String outcome = "success";
+        String exception = NONE;
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException e) {
+            outcome = outcome(e);
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            if (previous == null) {
+                currentOperation.remove();
+            } else {
+                currentOperation.set(previous);
+            }
+            sample.stop(Timer.builder("file.operation")
+                    .tag("operation", fileOperation.value())
+                    .tag("outcome", outcome)
+                    .tag("type", context.type == null ? NONE : context.type.name())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    // Tipo do documento da operação em andamento, informado pelo corpo assim que for conhecido
+    public void type(DocumentType type) {
+        OperationContext context = currentOperation.get();
+        if (context != null) {
+            context.type = type;
+        }
+    }
+
+    public void recordUpload(long length) {
+        bytesWritten.increment(length);
+        uploadSize.record(length);
+    }
+
+    // O download só termina quando o Spring MVC fecha o stream, depois que o FileService já retornou
+    public InputStream trackDownload(InputStream inputStream) {
+        downloadsInFlight.incrementAndGet();
+        return new DownloadInputStream(inputStream, bytesRead);
+    }
+
+    // Download atendido pelo BlobDiskCache: conta como download, mas os bytes não saem do GridFS
+    public InputStream trackCachedDownload(InputStream inputStream) {
+        downloadsInFlight.incrementAndGet();
+        return new DownloadInputStream(inputStream, cacheBytesServed);
+    }
+
+    // Exceções com @ResponseStatus 4xx são erro do cliente; o resto é falha do servidor
+    private static String outcome(RuntimeException e) {
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class);
+        return status != null && status.code().is4xxClientError() ? "client_error" : "server_error";
+    }
+
+    private static class OperationContext {
+        private DocumentType type;
+    }
+
+    private class DownloadInputStream extends FilterInputStream {
+        private final Counter bytes;
+        private long count;
+        private boolean closed;
+
+        DownloadInputStream(InputStream in, Counter bytes) {
+            super(in);
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        // Repassa o transferTo do stream original (FileChannel.transferTo no cache em disco)
+        @Override
+        public long transferTo(OutputStream out) throws IOException {
+            long transferred = in.transferTo(out);
+            count += transferred;
+            return transferred;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!closed) {
+                    closed = true;
+                    bytes.increment(count);
+                    downloadsInFlight.decrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.tcc.edlaine.service;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um método público de serviço como operação de arquivo: o FileMetrics cronometra a chamada
+ * no timer file.operation com a tag operation igual ao valor. O tipo do documento, quando conhecido
+ * no meio do método, é informado com fileMetrics.type(...).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface FileOperation {
+    String value();
+}
@@ -2,34 +2,64 @@ package com.tcc.edlaine.service;
 
 import com.tcc.edlaine.crosscutting.exceptions.file.FileNotFound;
 import com.tcc.edlaine.crosscutting.exceptions.file.FileUnprocessableEntity;
+import com.tcc.edlaine.crosscutting.exceptions.general.ObjectBadRequestException;
+import com.tcc.edlaine.crosscutting.utils.CursorPagination;
+import com.tcc.edlaine.crosscutting.utils.SizeLimitedInputStream;
+import com.tcc.edlaine.domain.dto.CursorPage;
+import com.tcc.edlaine.domain.dto.DocumentSummary;
 import com.tcc.edlaine.domain.dto.FileJson;
+import com.tcc.edlaine.domain.dto.StoredFile;
 import com.tcc.edlaine.domain.entities.DocumentEntity;
 import com.tcc.edlaine.domain.entities.FileVersion;
 import com.tcc.edlaine.domain.entities.SharedRecord;
 import com.tcc.edlaine.domain.entities.UserEntity;
 import com.tcc.edlaine.domain.enums.DocumentType;
 import com.tcc.edlaine.domain.enums.PermissionLevel;
+import com.tcc.edlaine.domain.events.DocumentVersionStored;
+import com.tcc.edlaine.repository.DocumentContentRepository;
 import com.tcc.edlaine.repository.DocumentRepository;
+import com.tcc.edlaine.repository.FileVersionRepository;
+import com.tcc.edlaine.repository.SharedRecordRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.InputStreamResource;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
-import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.ZoneId;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Slf4j
 @Service
@@ -38,26 +68,56 @@ public class FileService {
 
     private final FileStorageService fileStorageService;
     private final DocumentRepository documentRepository;
+    private final FileVersionRepository fileVersionRepository;
+    private final SharedRecordRepository sharedRecordRepository;
+    private final DocumentContentRepository documentContentRepository;
     private final AuthService authService;
-    private final EmailService emailService;
+    private final FileMetrics fileMetrics;
+    private final ApplicationEventPublisher eventPublisher;
     private static final List<String> VALID_EXTENSIONS = Arrays.asList("jpg", "jpeg", "png", "pdf", "xls", "xlsx", "doc", "docx", "csv");
+    private static final Pattern FILE_EXTENSION_PATTERN = Pattern.compile(".*\\.([a-zA-Z0-9]{2,4})$");
+    // Cache privado: as respostas dependem da permissão do usuário e não devem ficar em proxies compartilhados.
+    // Conteúdo que muda (documento, última versão) é revalidado pelo ETag; versões e prévias nunca mudam
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+
+    @Value("${custom.upload.stream-max-file-size}")
+    private DataSize streamMaxFileSize;
+    @Value("${custom.download.zip.max-entries}")
+    private int zipMaxEntries;
+
+    // O aspecto só intercepta chamadas vindas de fora: as sobrecargas que delegam também são anotadas
+    @FileOperation("upload")
+    public ResponseEntity<FileJson> uploadFile(MultipartFile file, String type) {
+        try (InputStream inputStream = file.getInputStream()) {
+            return uploadFile(file.getOriginalFilename(), inputStream, type);
+        } catch (IOException e) {
+            log.error("Failed to read uploaded file: {}", e.getMessage());
+            throw new FileUnprocessableEntity("Failed to read uploaded file. Details: " + e.getMessage());
+        }
+    }
 
+    @FileOperation("upload")
+    public ResponseEntity<FileJson> uploadFileStream(InputStream inputStream, String fileName, String type) {
+        return uploadFile(fileName, new SizeLimitedInputStream(inputStream, streamMaxFileSize.toBytes()), type);
+    }
 
-    public ResponseEntity<FileJson> uploadFile(MultipartFile file, String type) {
+    @FileOperation("upload")
+    public ResponseEntity<FileJson> uploadFile(String fileName, InputStream inputStream, String type) {
         try {
-            String fileName = file.getOriginalFilename();
             validateFileExtension(fileName);
 
             UserEntity user = authService.getAuthenticatedUser();
             AuthService.validateGuestAccess(user);
 
             DocumentType documentType = DocumentType.valueOf(type);
+            fileMetrics.type(documentType);
             validateUserPermissionForDocumentType(user, documentType);
 
-            DocumentEntity document = saveDocument(file, user, type);
+            DocumentEntity document = saveDocument(fileName, inputStream, user, type);
             return ResponseEntity.ok(new FileJson(document.getId(), document.getFilename()));
         } catch (FileUnprocessableEntity e) {
-            log.error("Invalid file extension: {}", e.getMessage());
+            log.error("Upload rejected: {}", e.getMessage());
             throw e;
         } catch (HttpClientErrorException e) {
             log.error("Failed to upload file: {}", e.getMessage());
@@ -68,21 +128,37 @@ public class FileService {
         }
     }
 
+    @FileOperation("update")
     public ResponseEntity<FileJson> updateFile(MultipartFile file, String documentId) {
+        try (InputStream inputStream = file.getInputStream()) {
+            return updateFile(file.getOriginalFilename(), inputStream, documentId);
+        } catch (IOException e) {
+            log.error("Failed to read updated file: {}", e.getMessage());
+            throw new FileUnprocessableEntity("Failed to read updated file. Details: " + e.getMessage());
+        }
+    }
+
+    @FileOperation("update")
+    public ResponseEntity<FileJson> updateFileStream(InputStream inputStream, String fileName, String documentId) {
+        return updateFile(fileName, new SizeLimitedInputStream(inputStream, streamMaxFileSize.toBytes()), documentId);
+    }
+
+    @FileOperation("update")
+    public ResponseEntity<FileJson> updateFile(String fileName, InputStream inputStream, String documentId) {
         try {
-            String fileName = file.getOriginalFilename();
             validateFileExtension(fileName);
 
             UserEntity user = authService.getAuthenticatedUser();
             DocumentEntity document = findDocumentById(documentId);
+            fileMetrics.type(document.getType());
 
             AuthService.validateAdminAccessOrOwnerData(user, document.getCustomerEmail());
             validateUserPermissionForDocumentType(user, document.getType());
 
-            DocumentEntity updatedDocument = updateDocument(file, user, documentId, document.getType().name());
+            DocumentEntity updatedDocument = updateDocument(fileName, inputStream, user, document);
             return ResponseEntity.ok(new FileJson(updatedDocument.getId(), updatedDocument.getFilename()));
         } catch (FileUnprocessableEntity e) {
-            log.error("Invalid file extension: {}", e.getMessage());
+            log.error("Update rejected: {}", e.getMessage());
             throw e;
         } catch (HttpClientErrorException e) {
             log.error("Failed to update file: {}", e.getMessage());
@@ -93,17 +169,19 @@ public class FileService {
         }
     }
 
+    @FileOperation("share")
     public ResponseEntity<FileJson> shareFile(String documentId, String email) {
         try {
             UserEntity user = authService.getAuthenticatedUser();
             DocumentEntity document = findDocumentById(documentId);
+            fileMetrics.type(document.getType());
             AuthService.validateUserAccess(user, document.getCustomerEmail());
 
-            document.shareWithEmail(email, user.getEmail());
+            SharedRecord sharedRecord = document.shareWithEmail(email, user.getEmail());
 
-            log.info("Initializing email sending for document {} and email {}", documentId, email);
-            emailService.sendEmail(email, document.getFilename());
-            documentRepository.save(document);
+            // O e-mail sai pelo ShareNotificationDispatcher; aqui só o registro (outbox) é gravado
+            sharedRecordRepository.insert(sharedRecord);
+            log.info("Share notification queued for document {} and email {}", documentId, email);
 
             return ResponseEntity.ok(new FileJson(document.getId(), document.getFilename()));
         } catch (HttpClientErrorException e) {
@@ -115,13 +193,22 @@ public class FileService {
         }
     }
 
-    public ResponseEntity<List<SharedRecord>> getShareHistory(String documentId) {
+    @FileOperation("share_history")
+    public ResponseEntity<CursorPage<SharedRecord>> getShareHistory(String documentId, String cursor, Integer size) {
         try {
-            UserEntity user = authService.getAuthenticatedUser();
+            UserEntity user = authService.getAuthorizedUser();
             DocumentEntity document = findDocumentById(documentId);
+            fileMetrics.type(document.getType());
             AuthService.validateUserAccess(user, document.getCustomerEmail());
+            int pageSize = CursorPagination.pageSize(size);
+            ObjectId after = CursorPagination.parseCursor(cursor);
+            Pageable pageable = CursorPagination.firstPage(pageSize, Sort.by(Sort.Direction.ASC, "id"));
+
+            List<SharedRecord> shareHistory = after == null
+                    ? sharedRecordRepository.findByDocumentId(documentId, pageable)
+                    : sharedRecordRepository.findByDocumentIdAndIdGreaterThan(documentId, after, pageable);
 
-            return ResponseEntity.ok(document.getShareHistory());
+            return ResponseEntity.ok(CursorPage.of(shareHistory, pageSize, SharedRecord::getId));
         } catch (HttpClientErrorException e) {
             log.error("Failed to retrieve share history: {}", e.getMessage());
             throw new FileUnprocessableEntity("Failed to retrieve share history. Details: " + e.getMessage());
@@ -131,65 +218,97 @@ public class FileService {
         }
     }
 
-    public ResponseEntity<List<DocumentEntity>> getUserDocuments() {
+    @FileOperation("list_user_documents")
+    public ResponseEntity<CursorPage<DocumentSummary>> getUserDocuments(String cursor, Integer size) {
         try {
-            UserEntity user = authService.getAuthenticatedUser();
+            UserEntity user = authService.getAuthorizedUser();
             AuthService.validateGuestAccess(user);
-            List<DocumentEntity> userFiles = documentRepository.findByCustomerEmail(user.getEmail());
+            int pageSize = CursorPagination.pageSize(size);
+            ObjectId after = CursorPagination.parseCursor(cursor);
+            Pageable pageable = CursorPagination.newestFirst(pageSize);
+
+            List<DocumentEntity> userFiles = after == null
+                    ? documentRepository.findSummariesByCustomerEmail(user.getEmail(), pageable)
+                    : documentRepository.findSummariesByCustomerEmailAndIdLessThan(user.getEmail(), after, pageable);
 
-            return ResponseEntity.ok(userFiles);
+            List<DocumentSummary> summaries = userFiles.stream().map(DocumentSummary::from).toList();
+            return ResponseEntity.ok(CursorPage.of(summaries, pageSize, DocumentSummary::getId));
         } catch (Exception e){
             log.error("Failed to retrieve user documents: {}", e.getMessage());
             throw new FileUnprocessableEntity("Failed to retrieve user documents. Details: " + e.getMessage());
         }
     }
 
-    public ResponseEntity<DocumentEntity> getDocumentById(String documentId) {
+    @FileOperation("get_document")
+    public ResponseEntity<DocumentEntity> getDocumentById(String documentId, WebRequest webRequest) {
         try {
-            UserEntity user = authService.getAuthenticatedUser();
+            UserEntity user = authService.getAuthorizedUser();
             AuthService.validateGuestAccess(user);
             DocumentEntity document = findDocumentById(documentId);
+            fileMetrics.type(document.getType());
 
-            return ResponseEntity.ok(document);
+            String eTag = documentETag(document);
+            if (webRequest.checkNotModified(eTag)) {
+                return notModified(eTag, REVALIDATE);
+            }
+            return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(document);
         } catch (Exception e){
             log.error("Failed to retrieve document for id: {}", e.getMessage());
             throw new FileUnprocessableEntity("Failed to retrieve documents for id. Details: " + e.getMessage());
         }
     }
 
-    public ResponseEntity<List<DocumentEntity>> getAllDocuments() {
+    @FileOperation("list_all_documents")
+    public ResponseEntity<CursorPage<DocumentSummary>> getAllDocuments(String cursor, Integer size) {
         try {
-            UserEntity user = authService.getAuthenticatedUser();
+            UserEntity user = authService.getAuthorizedUser();
             AuthService.validateGuestAccess(user);
+            int pageSize = CursorPagination.pageSize(size);
+            ObjectId after = CursorPagination.parseCursor(cursor);
+            Pageable pageable = CursorPagination.newestFirst(pageSize);
             List<DocumentEntity> userFiles;
 
             if(isPrivilegedUser(user)){
-                userFiles= documentRepository.findAll();
+                userFiles = after == null
+                        ? documentRepository.findAllSummaries(pageable)
+                        : documentRepository.findSummariesByIdLessThan(after, pageable);
             }else{
-                userFiles = documentRepository.findByType(DocumentType.PUBLIC);
+                fileMetrics.type(DocumentType.PUBLIC);
+                userFiles = after == null
+                        ? documentRepository.findSummariesByType(DocumentType.PUBLIC, pageable)
+                        : documentRepository.findSummariesByTypeAndIdLessThan(DocumentType.PUBLIC, after, pageable);
             }
 
-            return ResponseEntity.ok(userFiles);
+            List<DocumentSummary> summaries = userFiles.stream().map(DocumentSummary::from).toList();
+            return ResponseEntity.ok(CursorPage.of(summaries, pageSize, DocumentSummary::getId));
         } catch (Exception e){
             log.error("Failed to retrieve all documents: {}", e.getMessage());
             throw new FileUnprocessableEntity("Failed to retrieve all documents. Details: " + e.getMessage());
         }
     }
 
-    public ResponseEntity<Resource> downloadFileById(String id) {
+    @FileOperation("download")
+    public ResponseEntity<Resource> downloadFileById(String id, WebRequest webRequest) {
         try {
-            UserEntity user = authService.getAuthenticatedUser();
+            UserEntity user = authService.getAuthorizedUser();
             DocumentEntity document = findDocumentById(id);
+            fileMetrics.type(document.getType());
             AuthService.validateGuestAccess(user);
             validateUserPermissionForDocumentType(user, document.getType());
 
-            GridFsResource resource = fileStorageService.getFile(document.getLatestVersion().getFileId());
+            // 304 decidido só com os metadados do documento: o GridFS nem é consultado
+            FileVersion latestVersion = latestVersionOf(document);
+            if (webRequest.checkNotModified(blobETag(latestVersion), lastModified(latestVersion))) {
+                return notModified(blobETag(latestVersion), REVALIDATE);
+            }
+
+            Resource resource = fileStorageService.getFile(latestVersion.getFileId());
 
             if (resource == null) {
                 throw new FileNotFound("The requested file was not found in the storage.");
             }
 
-            return createDownloadResponse(resource);
+            return createDownloadResponse(resource, latestVersion, REVALIDATE);
         } catch (FileNotFound e) {
             log.error("File not found: {}", e.getMessage());
             throw e;
@@ -203,19 +322,38 @@ public class FileService {
     }
 
 
-    public ResponseEntity<List<FileVersion>> getFileVersionsById(String versionId) {
+    @FileOperation("list_versions")
+    public ResponseEntity<CursorPage<FileVersion>> getFileVersionsById(String versionId, String cursor, Integer size, WebRequest webRequest) {
         try {
-            UserEntity user = authService.getAuthenticatedUser();
-            Optional<DocumentEntity> optionalDocument = documentRepository.findByVersionsFileId(versionId);
+            UserEntity user = authService.getAuthorizedUser();
+            Optional<FileVersion> optionalVersion = fileVersionRepository.findFirstByFileId(versionId);
 
-            if (optionalDocument.isEmpty()) {
+            if (optionalVersion.isEmpty()) {
                 throw new FileNotFound("Document with versionId " + versionId + " not found.");
             }
 
-            DocumentEntity document = optionalDocument.get();
+            DocumentEntity document = findDocumentById(optionalVersion.get().getDocumentId());
+            fileMetrics.type(document.getType());
             AuthService.validateUserAccess(user, document.getCustomerEmail());
 
-            return ResponseEntity.ok(document.getVersions());
+            // Toda nova versão ou prévia incrementa a revisão do documento
+            String eTag = documentETag(document);
+            if (webRequest.checkNotModified(eTag)) {
+                return notModified(eTag, REVALIDATE);
+            }
+
+            int pageSize = CursorPagination.pageSize(size);
+            Integer after = CursorPagination.parseSequenceCursor(cursor);
+            Pageable pageable = CursorPagination.firstPage(pageSize, Sort.by(Sort.Direction.ASC, "sequence"));
+
+            List<FileVersion> versions = after == null
+                    ? fileVersionRepository.findByDocumentId(document.getId(), pageable)
+                    : fileVersionRepository.findByDocumentIdAndSequenceGreaterThan(document.getId(), after, pageable);
+
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .cacheControl(REVALIDATE)
+                    .body(CursorPage.of(versions, pageSize, version -> String.valueOf(version.getSequence())));
         } catch (HttpClientErrorException e) {
             log.error("Client error while retrieving file versions: {}", e.getMessage());
             throw new FileUnprocessableEntity("Failed to retrieve file versions: " + e.getMessage());
@@ -225,20 +363,27 @@ public class FileService {
         }
     }
 
-    public ResponseEntity<Resource> downloadFileVersionByVersionIndex(String documentId, int versionIndex) {
+    @FileOperation("download_version")
+    public ResponseEntity<Resource> downloadFileVersionByVersionIndex(String documentId, int versionIndex, WebRequest webRequest) {
         try {
-            UserEntity user = authService.getAuthenticatedUser();
+            UserEntity user = authService.getAuthorizedUser();
             DocumentEntity document = findDocumentById(documentId);
+            fileMetrics.type(document.getType());
             AuthService.validateGuestAccess(user);
             validateUserPermissionForDocumentType(user, document.getType());
 
-            FileVersion version = document.getVersionByIndex(versionIndex);
-            if (version == null) {
-                throw new FileNotFound("The requested document version was not found.");
+            FileVersion version = fileVersionRepository.findByDocumentIdAndSequence(document.getId(), versionIndex)
+                    .orElseThrow(() -> new FileNotFound("The requested document version was not found."));
+            if (webRequest.checkNotModified(blobETag(version), lastModified(version))) {
+                return notModified(blobETag(version), IMMUTABLE);
+            }
+
+            Resource resource = fileStorageService.getFile(version.getFileId());
+            if (resource == null) {
+                throw new FileNotFound("The requested file version was not found in the storage.");
             }
 
-            GridFsResource resource = fileStorageService.getFile(version.getFileId());
-            return createDownloadResponse(resource);
+            return createDownloadResponse(resource, version, IMMUTABLE);
         } catch (FileNotFound e) {
             log.error("File version not found: {}", e.getMessage());
             throw e;
@@ -251,16 +396,107 @@ public class FileService {
         }
     }
 
+    // Versões e prévias nunca mudam depois de gravadas: o navegador guarda a miniatura por um ano
+    @FileOperation("download_preview")
+    public ResponseEntity<Resource> downloadPreview(String documentId, int versionIndex, WebRequest webRequest) {
+        try {
+            UserEntity user = authService.getAuthorizedUser();
+            DocumentEntity document = findDocumentById(documentId);
+            fileMetrics.type(document.getType());
+            AuthService.validateGuestAccess(user);
+            validateUserPermissionForDocumentType(user, document.getType());
+
+            FileVersion version = fileVersionRepository.findByDocumentIdAndSequence(document.getId(), versionIndex)
+                    .orElseThrow(() -> new FileNotFound("The requested document version was not found."));
+            if (version.getPreviewFileId() == null) {
+                throw new FileNotFound("No preview is available for this version.");
+            }
+            if (webRequest.checkNotModified(version.getPreviewFileId())) {
+                return notModified(version.getPreviewFileId(), IMMUTABLE);
+            }
+
+            Resource resource = fileStorageService.getFile(version.getPreviewFileId());
+            if (resource == null) {
+                throw new FileNotFound("The requested preview was not found in the storage.");
+            }
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.IMAGE_JPEG)
+                    .eTag(version.getPreviewFileId())
+                    .cacheControl(IMMUTABLE)
+                    .body(resource);
+        } catch (FileNotFound e) {
+            log.error("Preview not found: {}", e.getMessage());
+            throw e;
+        } catch (HttpClientErrorException e) {
+            log.error("Client error while retrieving preview: {}", e.getMessage());
+            throw new FileUnprocessableEntity("Failed to process preview request: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error while retrieving preview: {}", e.getMessage());
+            throw new RuntimeException("An unexpected error occurred while retrieving the preview. Details: " + e.getMessage());
+        }
+    }
+
+    // ZIP gerado durante o envio: nada é montado em disco ou em memória além do buffer do Deflater
+    @FileOperation("download_zip")
+    public ResponseEntity<StreamingResponseBody> downloadZip(List<String> documentIds,
+                                                             DocumentType type,
+                                                             LocalDate from,
+                                                             LocalDate to) {
+        try {
+            UserEntity user = authService.getAuthorizedUser();
+            AuthService.validateGuestAccess(user);
+            fileMetrics.type(type);
+
+            List<DocumentEntity> documents = findDocumentsForZip(user, documentIds, type, from, to);
+            documents.forEach(document -> validateUserPermissionForDocumentType(user, document.getType()));
+
+            // Permissões e existência validadas antes do primeiro byte: depois disso não há como mudar o status
+            List<String> fileIds = documents.stream()
+                    .map(document -> latestVersionOf(document).getFileId())
+                    .toList();
+            Map<String, Resource> files = fileStorageService.getFiles(fileIds);
+            if (files.size() < fileIds.stream().distinct().count()) {
+                throw new FileNotFound("One or more requested files were not found in the storage.");
+            }
+
+            StreamingResponseBody body = outputStream -> writeZip(documents, files, outputStream);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/zip"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"documentos.zip\"")
+                    .body(body);
+        } catch (FileNotFound | FileUnprocessableEntity | ObjectBadRequestException e) {
+            log.error("Failed to prepare zip download: {}", e.getMessage());
+            throw e;
+        } catch (HttpClientErrorException e) {
+            log.error("Client error while preparing zip download: {}", e.getMessage());
+            throw new FileUnprocessableEntity("Failed to process zip download request: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error while preparing zip download: {}", e.getMessage());
+            throw new RuntimeException("An unexpected error occurred while preparing the zip download. Details: " + e.getMessage());
+        }
+    }
+
+    @FileOperation("delete")
     public ResponseEntity<FileJson> deleteDocumentById(String documentId) {
         try {
             UserEntity user = authService.getAuthenticatedUser();
             DocumentEntity document = findDocumentById(documentId);
+            fileMetrics.type(document.getType());
             AuthService.validadeUserAndAuthoritySuperAdmin(user);
 
-            document.getVersions().forEach(fileVersion -> {
-                fileStorageService.deleteFile(fileVersion.getFileId());
-            });
-            documentRepository.delete(document);
+            try (Stream<FileVersion> versions = fileVersionRepository.streamByDocumentId(document.getId())) {
+                versions.forEach(fileVersion -> {
+                    fileStorageService.releaseFile(fileVersion.getFileId());
+                    if (fileVersion.getPreviewFileId() != null) {
+                        fileStorageService.deleteFile(fileVersion.getPreviewFileId());
+                    }
+                });
+            }
+            fileVersionRepository.deleteByDocumentId(document.getId());
+            sharedRecordRepository.deleteByDocumentId(document.getId());
+            documentRepository.deleteById(document.getId());
+            documentContentRepository.deleteById(document.getId());
 
             return ResponseEntity.ok(new FileJson(document.getId(), document.getFilename()));
         } catch (HttpClientErrorException e) {
@@ -277,52 +513,130 @@ public class FileService {
                 .orElseThrow(() -> new FileNotFound("Document notFound"));
     }
 
-    private DocumentEntity saveDocument(MultipartFile file, UserEntity user, String type) throws IOException {
-        String fileId = fileStorageService.saveFile(file);
-        log.info("Id no fileStrage ::::: {}", fileId);
-        DocumentEntity document = new DocumentEntity(file.getOriginalFilename(), user.getEmail(), fileId, type);
+    // Lista de ids ou período (com tipo opcional); usuários sem privilégio só enxergam PUBLIC
+    private List<DocumentEntity> findDocumentsForZip(UserEntity user,
+                                                     List<String> documentIds,
+                                                     DocumentType type,
+                                                     LocalDate from,
+                                                     LocalDate to) {
+        if (documentIds != null && !documentIds.isEmpty()) {
+            List<String> ids = documentIds.stream().distinct().toList();
+            if (ids.size() > zipMaxEntries) {
+                throw new FileUnprocessableEntity("A zip download accepts at most " + zipMaxEntries + " documents.");
+            }
+
+            Map<String, DocumentEntity> documents = new HashMap<>();
+            documentRepository.findSummariesByIdIn(ids).forEach(document -> documents.put(document.getId(), document));
+            if (documents.size() < ids.size()) {
+                throw new FileNotFound("One or more requested documents were not found.");
+            }
+            return ids.stream().map(documents::get).toList(); // Mantém a ordem pedida
+        }
+
+        if (from == null || to == null) {
+            throw new ObjectBadRequestException("Provide the document ids or a from/to period.");
+        }
 
-        documentRepository.save(document);
+        DocumentType effectiveType = type == null && !isPrivilegedUser(user) ? DocumentType.PUBLIC : type;
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        Pageable pageable = CursorPagination.firstPage(zipMaxEntries, Sort.by(Sort.Direction.ASC, "createdAt"));
+
+        List<DocumentEntity> documents = effectiveType == null
+                ? documentRepository.findSummariesByCreatedAtBetween(start, end, pageable)
+                : documentRepository.findSummariesByTypeAndCreatedAtBetween(effectiveType, start, end, pageable);
+        if (documents.size() > zipMaxEntries) {
+            throw new FileUnprocessableEntity("The period has more than " + zipMaxEntries + " documents; narrow the filter.");
+        }
+        return documents;
+    }
+
+    private void writeZip(List<DocumentEntity> documents,
+                          Map<String, Resource> files,
+                          OutputStream outputStream) throws IOException {
+        Set<String> entryNames = new HashSet<>();
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        zip.setLevel(Deflater.BEST_SPEED); // PDF, imagens e OOXML já chegam comprimidos
+
+        for (DocumentEntity document : documents) {
+            zip.putNextEntry(new ZipEntry(uniqueEntryName(document.getFilename(), entryNames)));
+            try (InputStream inputStream = files.get(document.getLatestVersion().getFileId()).getInputStream()) {
+                inputStream.transferTo(zip);
+            }
+            zip.closeEntry();
+        }
+        zip.finish(); // O stream da resposta é fechado pelo Spring MVC
+    }
+
+    // Nomes repetidos viram "nome (1).pdf", "nome (2).pdf"...
+    private static String uniqueEntryName(String fileName, Set<String> entryNames) {
+        String name = fileName;
+        int dot = fileName.lastIndexOf('.');
+        for (int i = 1; !entryNames.add(name); i++) {
+            name = dot > 0
+                    ? fileName.substring(0, dot) + " (" + i + ")" + fileName.substring(dot)
+                    : fileName + " (" + i + ")";
+        }
+        return name;
+    }
+
+    private DocumentEntity saveDocument(String fileName, InputStream inputStream, UserEntity user, String type) throws IOException {
+        StoredFile storedFile = fileStorageService.saveFile(fileName, inputStream);
+        log.info("Id no fileStrage ::::: {}", storedFile.getFileId());
+        DocumentEntity document = new DocumentEntity(fileName, user.getEmail(), type);
+        FileVersion version = document.addVersion(storedFile.getFileId(), fileName, LocalDateTime.now(), storedFile.getContentHash());
+
+        fileVersionRepository.insert(version);
+        documentRepository.insert(document);
+        eventPublisher.publishEvent(new DocumentVersionStored(document, version));
         log.info("Document saved: {}", document.getId());
         return document;
     }
 
-    private DocumentEntity updateDocument(MultipartFile file, UserEntity user, String documentId, String type) throws IOException {
-        String fileId = fileStorageService.saveFile(file);
-        log.info("Id no fileStorage ::::: {}", fileId);
-
-        DocumentEntity document = findDocumentById(documentId);
+    // Recebe o documento já validado em updateFile, sem uma segunda leitura
+    private DocumentEntity updateDocument(String fileName, InputStream inputStream, UserEntity user, DocumentEntity document) throws IOException {
+        StoredFile storedFile = fileStorageService.saveFile(fileName, inputStream);
+        log.info("Id no fileStorage ::::: {}", storedFile.getFileId());
 
-        AuthService.validateAdminAccessOrOwnerData(user, document.getCustomerEmail());
-        validateUserPermissionForDocumentType(user, document.getType());
+        DocumentEntity updatedDocument = documentRepository.allocateVersion(document.getId(), fileName, user.getEmail());
+        if (updatedDocument == null) {
+            fileStorageService.releaseFile(storedFile.getFileId());
+            throw new FileNotFound("Document notFound");
+        }
 
-        DocumentEntity updatedDocument = new DocumentEntity(
-                file.getOriginalFilename(),
-                user.getEmail(),
-                fileId,
-                document.getId(),
-                type
+        FileVersion version = new FileVersion(
+                updatedDocument.getId(),
+                updatedDocument.getVersionCount() - 1,
+                storedFile.getFileId(),
+                fileName,
+                LocalDateTime.now(),
+                storedFile.getContentHash()
         );
 
-        List<FileVersion> allVersions = new ArrayList<>(document.getVersions());
-        allVersions.add(new FileVersion(fileId, file.getOriginalFilename(), LocalDateTime.now()));
-        updatedDocument.setVersions(allVersions);
-
-        documentRepository.save(updatedDocument);
+        fileVersionRepository.insert(version);
+        documentRepository.publishLatestVersion(version);
+        updatedDocument.setLatestVersion(version);
+        eventPublisher.publishEvent(new DocumentVersionStored(updatedDocument, version));
         log.info("Document updated: {}", updatedDocument.getId());
 
         return updatedDocument;
     }
 
-    private String getFileExtension(String fileName) {
+    // Documento sem versão publicada (histórico antigo ainda não migrado): 404 em vez de NullPointerException
+    private static FileVersion latestVersionOf(DocumentEntity document) {
+        if (document.getLatestVersion() == null) {
+            throw new FileNotFound("The document " + document.getId() + " has no stored version.");
+        }
+        return document.getLatestVersion();
+    }
+
+    // Visibilidade de pacote para os benchmarks JMH (src/jmh) e para o ReactiveFileService
+    static String getFileExtension(String fileName) {
         if (fileName == null || fileName.isEmpty()) {
             return "";
         }
 
-        String regex = ".*\\.([a-zA-Z0-9]{2,4})$";
-
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(fileName);
+        Matcher matcher = FILE_EXTENSION_PATTERN.matcher(fileName);
 
         if (matcher.find()) {
             String extension = matcher.group(1).toLowerCase();
@@ -338,7 +652,7 @@ public class FileService {
     }
 
 
-    private String getMimeType(String extension) {
+    static String getMimeType(String extension) {
         return switch (extension) {
             case "pdf" -> "application/pdf";
             case "jpg", "jpeg" -> "image/jpeg";
@@ -353,7 +667,7 @@ public class FileService {
         };
     }
 
-    private boolean isPrivilegedUser(UserEntity user) {
+    static boolean isPrivilegedUser(UserEntity user) {
         if (user.getPermissionLevel() == null) {
             return false;
         }
@@ -365,7 +679,7 @@ public class FileService {
                 permission == PermissionLevel.COUNTER;
     }
 
-    private void validateFileExtension(String fileName) {
+    static void validateFileExtension(String fileName) {
         if (fileName == null || fileName.isEmpty()) {
             throw new FileUnprocessableEntity("File must have a valid extension.");
         }
@@ -376,21 +690,43 @@ public class FileService {
         }
     }
 
-    private void validateUserPermissionForDocumentType(UserEntity user, DocumentType type) {
+    static void validateUserPermissionForDocumentType(UserEntity user, DocumentType type) {
         if (type == DocumentType.FINANCIAL && !isPrivilegedUser(user)) {
             throw new FileUnprocessableEntity("You do not have permission to upload, update, or download FINANCIAL documents.");
         }
     }
 
-    private ResponseEntity<Resource> createDownloadResponse(GridFsResource resource) throws IOException {
-        String fileName = resource.getFilename();
+    // Corpo re-legível: o Spring MVC envia Content-Length/Accept-Ranges e responde 206 para Range
+    private ResponseEntity<Resource> createDownloadResponse(Resource resource, FileVersion version, CacheControl cacheControl) {
+        String fileName = version.getFileName(); // Blob deduplicado pode ter sido gravado com o nome de outra versão
         String extension = getFileExtension(fileName);
         String mimeType = getMimeType(extension);
 
         return ResponseEntity.ok()
                 .contentType(MediaType.parseMediaType(mimeType))
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                .body(new InputStreamResource(resource.getInputStream()));
+                .eTag(blobETag(version))
+                .lastModified(lastModified(version))
+                .cacheControl(cacheControl)
+                .body(resource);
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+    }
+
+    // ETag forte do conteúdo: o SHA-256 do blob (ou o id do GridFS, imutável, para versões anteriores ao hash)
+    private static String blobETag(FileVersion version) {
+        return version.getContentHash() != null ? version.getContentHash() : version.getFileId();
+    }
+
+    // Revisão do @Version: muda a cada escrita no documento
+    private static String documentETag(DocumentEntity document) {
+        return document.getId() + "-" + (document.getRevision() == null ? 0 : document.getRevision());
+    }
+
+    private static long lastModified(FileVersion version) {
+        return version.getUploadedAt() == null ? -1 : version.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
 }
@@ -1,51 +1,253 @@
 package com.tcc.edlaine.service;
 
-import com.mongodb.client.gridfs.GridFSBucket;
-import com.mongodb.client.gridfs.model.GridFSFile;
+import com.tcc.edlaine.domain.dto.StoredFile;
+import com.tcc.edlaine.domain.entities.BlobEntity;
+import lombok.extern.slf4j.Slf4j;
 import org.bson.types.ObjectId;
-import org.springframework.data.mongodb.gridfs.GridFsOperations;
-import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import static org.springframework.data.mongodb.core.FindAndModifyOptions.options;
 import static org.springframework.data.mongodb.core.query.Criteria.where;
 import static org.springframework.data.mongodb.core.query.Query.query;
 
+/**
+ * Bytes no BlobStore configurado em custom.storage.backend; metadados, hash e contagem de referências no Mongo.
+ * Leituras procuram primeiro no backend ativo e depois nos demais, o que mantém os downloads funcionando
+ * durante uma migração entre backends (BlobStorageMigration).
+ */
+@Slf4j
 @Service
 public class FileStorageService {
 
-    private final GridFSBucket gridFSBucket;
-    private final GridFsOperations gridFsOperations;
+    private static final int MAX_DEDUPLICATION_ATTEMPTS = 3;
 
-    public FileStorageService(GridFSBucket gridFSBucket, GridFsOperations gridFsOperations) {
-        this.gridFSBucket = gridFSBucket;
-        this.gridFsOperations = gridFsOperations;
+    private final BlobStore activeStore;
+    private final List<BlobStore> blobStores; // Backend ativo primeiro
+    private final MongoTemplate mongoTemplate;
+    private final FileMetrics fileMetrics;
+    private final BlobDiskCache blobDiskCache;
+
+    public FileStorageService(List<BlobStore> blobStores,
+                              @Value("${custom.storage.backend}") String backend,
+                              MongoTemplate mongoTemplate,
+                              FileMetrics fileMetrics,
+                              BlobDiskCache blobDiskCache) {
+        this.activeStore = blobStores.stream()
+                .filter(store -> store.name().equals(backend))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown storage backend: " + backend));
+        this.blobStores = Stream.concat(Stream.of(activeStore), blobStores.stream().filter(store -> store != activeStore)).toList();
+        this.mongoTemplate = mongoTemplate;
+        this.fileMetrics = fileMetrics;
+        this.blobDiskCache = blobDiskCache;
     }
 
-    // 🟢 SALVAR O ARQUIVO NO MONGO
-    public String saveFile(MultipartFile file) throws IOException {
+    // 🟢 SALVAR O ARQUIVO
+    public StoredFile saveFile(MultipartFile file) throws IOException {
         try (InputStream inputStream = file.getInputStream()) {
-            ObjectId fileId = gridFSBucket.uploadFromStream(file.getOriginalFilename(), inputStream);
-            return fileId.toHexString(); // Retorna o ID do arquivo salvo
+            return saveFile(file.getOriginalFilename(), inputStream);
         }
     }
 
-    // 🔵 RECUPERAR O ARQUIVO DO MONGO
-    public GridFsResource getFile(String fileId) {
-        GridFSFile gridFSFile = gridFsOperations.findOne(query(where("_id").is(fileId)));
+    // 🟢 SALVAR O ARQUIVO A PARTIR DE UM STREAM (gravado no backend ativo conforme os bytes chegam)
+    public StoredFile saveFile(String fileName, InputStream inputStream) throws IOException {
+        MessageDigest digest = newDigest();
+        String fileId = new ObjectId().toHexString();
+        long length = activeStore.save(fileId, fileName, new DigestInputStream(inputStream, digest));
+        fileMetrics.recordUpload(length);
+
+        String contentHash = HexFormat.of().formatHex(digest.digest());
+        return deduplicate(fileId, contentHash, length);
+    }
+
+    // 🟢 SALVAR UMA PRÉVIA (arquivo pequeno, fora da deduplicação e da contagem de referências)
+    public String savePreview(String fileName, byte[] content) throws IOException {
+        String fileId = new ObjectId().toHexString();
+        activeStore.save(fileId, fileName, new ByteArrayInputStream(content));
+        return fileId;
+    }
 
-        if (gridFSFile == null) {
-            return null;
+    // 🔵 RECUPERAR O ARQUIVO (do cache em disco quando possível; senão do backend, preenchendo o cache)
+    public Resource getFile(String fileId) {
+        BlobDiskCache.CachedBlob cached = blobDiskCache.get(fileId);
+        if (cached != null) {
+            return cachedResource(cached);
         }
 
-        return gridFsOperations.getResource(gridFSFile);
+        try {
+            return findInStores(fileId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BlobResource findInStores(String fileId) throws IOException {
+        for (BlobStore store : blobStores) {
+            Optional<BlobStore.BlobStat> stat = store.stat(fileId);
+            if (stat.isPresent()) {
+                return new BlobResource(store, stat.get(), fileMetrics, blobDiskCache);
+            }
+        }
+        return null;
+    }
+
+    // Arquivo removido do cache antes da leitura: procura de novo nos backends
+    private CachedBlobResource cachedResource(BlobDiskCache.CachedBlob cached) {
+        return new CachedBlobResource(blobDiskCache, cached, fileMetrics, () -> {
+            BlobResource resource = findInStores(cached.fileId());
+            if (resource == null) {
+                throw new IOException("Blob " + cached.fileId() + " not found in any storage backend");
+            }
+            return resource.getInputStream();
+        });
     }
 
-    // 🔴 DELETAR UM ARQUIVO
+    // 🔵 LER O CONTEÚDO EM TAREFAS DE FUNDO (indexação, prévias), fora das métricas de download
+    public InputStream openFile(String fileId) throws IOException {
+        for (BlobStore store : blobStores) {
+            if (store.stat(fileId).isPresent()) {
+                return store.open(fileId, 0);
+            }
+        }
+        throw new IOException("Blob " + fileId + " not found in any storage backend");
+    }
+
+    // 🔵 TAMANHO DO ARQUIVO SEM LER O CONTEÚDO (tarefas de fundo pulam arquivos grandes demais)
+    public Optional<BlobStore.BlobStat> statFile(String fileId) throws IOException {
+        for (BlobStore store : blobStores) {
+            Optional<BlobStore.BlobStat> stat = store.stat(fileId);
+            if (stat.isPresent()) {
+                return stat;
+            }
+        }
+        return Optional.empty();
+    }
+
+    // 🔵 COPIAR PARA UM ARQUIVO TEMPORÁRIO: PDFBox e POI leem com acesso aleatório sem carregar tudo no heap; quem chama apaga
+    public Path copyToTempFile(String fileId, String suffix) throws IOException {
+        Path tempFile = Files.createTempFile("blob-" + fileId, suffix);
+        try (InputStream inputStream = openFile(fileId)) {
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            return tempFile;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    // 🔵 RECUPERAR VÁRIOS ARQUIVOS COM UMA CONSULTA POR BACKEND, indexados pelo id
+    public Map<String, Resource> getFiles(Collection<String> fileIds) {
+        Map<String, Resource> files = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+        for (String fileId : fileIds) {
+            BlobDiskCache.CachedBlob cached = blobDiskCache.get(fileId);
+            if (cached != null) {
+                files.put(fileId, cachedResource(cached));
+            } else {
+                missing.add(fileId);
+            }
+        }
+
+        try {
+            for (BlobStore store : blobStores) {
+                if (missing.isEmpty()) {
+                    break;
+                }
+                store.stat(missing).forEach((fileId, stat) ->
+                        files.put(fileId, new BlobResource(store, stat, fileMetrics, blobDiskCache)));
+                missing.removeAll(files.keySet());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return files;
+    }
+
+    // 🟠 LIBERAR UMA REFERÊNCIA (o arquivo só é apagado quando a última versão deixa de apontar para ele)
+    public void releaseFile(String fileId) {
+        BlobEntity blob = mongoTemplate.findAndModify(query(where("_id").is(fileId)),
+                new Update().inc("refCount", -1), options().returnNew(true), BlobEntity.class);
+
+        if (blob == null) {
+            deleteFile(fileId); // Arquivo anterior à deduplicação, sem contagem de referências
+            return;
+        }
+
+        if (blob.getRefCount() <= 0) {
+            mongoTemplate.remove(query(where("_id").is(fileId).and("refCount").lte(0)), BlobEntity.class);
+            deleteFile(fileId);
+        }
+    }
+
+    // 🔴 DELETAR UM ARQUIVO (em todos os backends: durante uma migração ele pode existir nos dois)
     public void deleteFile(String fileId) {
-        gridFSBucket.delete(new ObjectId(fileId));
+        blobDiskCache.invalidate(fileId);
+        try {
+            for (BlobStore store : blobStores) {
+                store.delete(fileId);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // O hash só é conhecido ao fim do stream: se o conteúdo já existe, reaproveita o blob e descarta o recém-gravado
+    private StoredFile deduplicate(String fileId, String contentHash, long length) {
+        for (int attempt = 0; attempt < MAX_DEDUPLICATION_ATTEMPTS; attempt++) {
+            BlobEntity existing = mongoTemplate.findAndModify(
+                    query(where("contentHash").is(contentHash).and("refCount").gt(0)),
+                    new Update().inc("refCount", 1), options().returnNew(true), BlobEntity.class);
+
+            if (existing != null) {
+                deleteFile(fileId);
+                log.info("Duplicated content {} reusing blob {}", contentHash, existing.getId());
+                return new StoredFile(existing.getId(), contentHash, existing.getLength());
+            }
+
+            try {
+                mongoTemplate.insert(new BlobEntity(fileId, contentHash, length));
+                return new StoredFile(fileId, contentHash, length);
+            } catch (DuplicateKeyException e) {
+                // Upload concorrente do mesmo conteúdo (ou blob sendo liberado): tenta novamente
+                log.warn("Concurrent blob registration for content {}: {}", contentHash, e.getMessage());
+            }
+        }
+
+        deleteFile(fileId);
+        throw new IllegalStateException("Unable to register blob for content " + contentHash);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
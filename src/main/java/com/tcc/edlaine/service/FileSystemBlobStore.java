@@ -0,0 +1,108 @@
+package com.tcc.edlaine.service;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Blobs como arquivos locais em root/ab/cd/&lt;id&gt;, onde ab/cd são os últimos caracteres do ObjectId
+ * (o contador, que varia a cada id) para espalhar os arquivos entre diretórios.
+ * A gravação vai para um .tmp no mesmo diretório e só aparece com o id após fsync e rename atômico.
+ */
+@Component
+public class FileSystemBlobStore implements BlobStore {
+
+    public static final String NAME = "filesystem";
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+    private final Path root;
+
+    public FileSystemBlobStore(@Value("${custom.storage.filesystem.root}") Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public long save(String blobId, String fileName, InputStream inputStream) throws IOException {
+        Path target = pathOf(blobId);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), blobId, ".tmp");
+
+        try {
+            long length = 0;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                 ReadableByteChannel source = Channels.newChannel(inputStream)) {
+                for (long transferred; (transferred = channel.transferFrom(source, length, TRANSFER_CHUNK)) > 0; ) {
+                    length += transferred;
+                }
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return length;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    @Override
+    public InputStream open(String blobId, long offset) throws IOException {
+        FileChannel channel = FileChannel.open(pathOf(blobId), StandardOpenOption.READ);
+        channel.position(offset);
+        return new FileChannelInputStream(channel);
+    }
+
+    @Override
+    public Optional<BlobStat> stat(String blobId) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(pathOf(blobId), BasicFileAttributes.class);
+            return Optional.of(new BlobStat(blobId, attributes.size(), attributes.lastModifiedTime().toMillis()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void delete(String blobId) throws IOException {
+        Files.deleteIfExists(pathOf(blobId));
+    }
+
+    @Override
+    public Stream<String> listIds() throws IOException {
+        if (!Files.isDirectory(root)) {
+            return Stream.empty();
+        }
+        return Files.walk(root, 3)
+                .filter(Files::isRegularFile)
+                .map(path -> path.getFileName().toString())
+                .filter(name -> !name.endsWith(".tmp"));
+    }
+
+    private Path pathOf(String blobId) {
+        if (!ObjectId.isValid(blobId)) {
+            throw new IllegalArgumentException("Invalid blob id: " + blobId); // Nunca resolve caminhos arbitrários
+        }
+        int length = blobId.length();
+        return root.resolve(blobId.substring(length - 2))
+                .resolve(blobId.substring(length - 4, length - 2))
+                .resolve(blobId);
+    }
+}
@@ -0,0 +1,105 @@
+package com.tcc.edlaine.service;
+
+import com.mongodb.MongoGridFSException;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSDownloadStream;
+import com.mongodb.client.gridfs.GridFSUploadStream;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import org.bson.BsonObjectId;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+// Backend original: chunks de 255 KB em fs.chunks, metadados em fs.files
+@Component
+public class GridFsBlobStore implements BlobStore {
+
+    public static final String NAME = "gridfs";
+
+    private final GridFSBucket gridFSBucket;
+    private final GridFsOperations gridFsOperations;
+
+    public GridFsBlobStore(GridFSBucket gridFSBucket, GridFsOperations gridFsOperations) {
+        this.gridFSBucket = gridFSBucket;
+        this.gridFsOperations = gridFsOperations;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    // Chunks gravados conforme os bytes chegam; o fs.files só é criado no close
+    @Override
+    public long save(String blobId, String fileName, InputStream inputStream) throws IOException {
+        GridFSUploadStream uploadStream = gridFSBucket.openUploadStream(new BsonObjectId(new ObjectId(blobId)), fileName);
+        try {
+            long length = inputStream.transferTo(uploadStream);
+            uploadStream.close();
+            return length;
+        } catch (IOException | RuntimeException e) {
+            uploadStream.abort(); // Remove os chunks já gravados
+            throw e;
+        }
+    }
+
+    // O skip do GridFS pula direto para o chunk de destino
+    @Override
+    public InputStream open(String blobId, long offset) {
+        GridFSDownloadStream downloadStream = gridFSBucket.openDownloadStream(new ObjectId(blobId));
+        if (offset > 0) {
+            downloadStream.skip(offset);
+        }
+        return downloadStream;
+    }
+
+    @Override
+    public Optional<BlobStat> stat(String blobId) {
+        return Optional.ofNullable(gridFsOperations.findOne(query(where("_id").is(blobId)))).map(GridFsBlobStore::toStat);
+    }
+
+    // Uma única consulta ($in) para vários arquivos
+    @Override
+    public Map<String, BlobStat> stat(Collection<String> blobIds) {
+        Map<String, BlobStat> stats = new HashMap<>();
+        gridFsOperations.find(query(where("_id").in(blobIds)))
+                .forEach(gridFSFile -> stats.put(gridFSFile.getObjectId().toHexString(), toStat(gridFSFile)));
+        return stats;
+    }
+
+    @Override
+    public void delete(String blobId) {
+        try {
+            gridFSBucket.delete(new ObjectId(blobId));
+        } catch (MongoGridFSException e) {
+            // Já apagado (ou nunca gravado neste backend)
+        }
+    }
+
+    @Override
+    public Stream<String> listIds() {
+        MongoCursor<GridFSFile> cursor = gridFSBucket.find().iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
+                .map(gridFSFile -> gridFSFile.getObjectId().toHexString())
+                .onClose(cursor::close);
+    }
+
+    private static BlobStat toStat(GridFSFile gridFSFile) {
+        return new BlobStat(gridFSFile.getObjectId().toHexString(), gridFSFile.getLength(), gridFSFile.getUploadDate().getTime());
+    }
+}
@@ -7,17 +7,21 @@ import com.tcc.edlaine.repository.UserRepository;
 import org.springframework.context.annotation.Primary;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
 
 @Primary
 @Service
-public class MyUserDetailsService implements UserDetailsService {
+public class MyUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    // O cache direto, e não o AuthService: o AuthService depende do AuthenticationManager, que depende deste serviço
+    private final AuthenticatedUserCache authenticatedUserCache;
 
-    public MyUserDetailsService(UserRepository userRepository) {
+    public MyUserDetailsService(UserRepository userRepository, AuthenticatedUserCache authenticatedUserCache) {
         this.userRepository = userRepository;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
 
     @Override
@@ -30,9 +34,23 @@ public class MyUserDetailsService implements UserDetailsService {
         }
 
         return User.builder()
-                .username(userEntity.getUsername())
+                .username(userEntity.getEmail())
                 .password(userEntity.getPassword())
                 .roles(userEntity.getPermissionLevel().name())
                 .build();
     }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserEntity userEntity = userRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UserNotFound("user [" + user.getUsername() + "] not found"));
+
+        userEntity.setPassword(newPassword);
+        userRepository.save(userEntity);
+        authenticatedUserCache.invalidate(userEntity.getEmail()); // Mesma invalidação do AuthService.evictAuthenticatedUser
+
+        return User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.tcc.edlaine.service;
+
+import com.tcc.edlaine.crosscutting.exceptions.general.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Limita a admissão de BCrypt (hash e login): no máximo threads hashes simultâneos e queue-capacity na fila.
+ * A thread da requisição continua esperando o resultado (a API é síncrona); o que o pool garante é que,
+ * com a fila cheia ou parada por mais de queue-timeout, a requisição recebe 429 na hora em vez de ocupar
+ * um worker esperando CPU enquanto downloads ficam parados atrás dela.
+ */
+@Slf4j
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration queueTimeout;
+    private final MeterRegistry meterRegistry;
+    private final Timer queueWait;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${custom.security.hashing.threads}") int threads,
+                                  @Value("${custom.security.hashing.queue-capacity}") int queueCapacity,
+                                  @Value("${custom.security.hashing.queue-timeout}") Duration queueTimeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.meterRegistry = meterRegistry;
+        this.queueTimeout = queueTimeout;
+        // Continua em threads de plataforma mesmo com spring.threads.virtual.enabled: BCrypt é CPU pura
+        // e o pool limitado é o que garante o 429 em vez de fila infinita
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.queueWait = Timer.builder("password.hashing.queue.wait")
+                .description("Tempo na fila antes do hash começar")
+                .register(meterRegistry);
+        meterRegistry.gauge("password.hashing.queue.size", executor, pool -> pool.getQueue().size());
+    }
+
+    public String encode(String rawPassword) {
+        return execute("encode", () -> passwordEncoder.encode(rawPassword));
+    }
+
+    // Usado também pelo login: o AuthenticationManager roda o matches (e o upgrade do hash) dentro do pool
+    public <T> T execute(String operation, Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        Timer duration = meterRegistry.timer("password.hashing.duration", "operation", operation);
+
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null; // Desistiu na fila: a requisição já recebeu 429
+                }
+                queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return duration.record(task);
+            });
+        } catch (RejectedExecutionException e) {
+            throw reject(operation, "Password hashing queue is full, rejecting {}");
+        }
+
+        try {
+            try {
+                return future.get(queueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (claimed.compareAndSet(false, true)) {
+                    executor.remove((Runnable) future); // Ainda na fila: sai sem ocupar um worker
+                    throw reject(operation, "Password hashing queue wait exceeded, rejecting {}");
+                }
+                // Já em execução: BCrypt não é interrompível e termina em milissegundos, então espera o resultado
+                return future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private TooManyRequestsException reject(String operation, String message) {
+        meterRegistry.counter("password.hashing.rejected", "operation", operation).increment();
+        log.warn(message, operation);
+        return new TooManyRequestsException("Too many authentication requests. Please try again shortly.");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
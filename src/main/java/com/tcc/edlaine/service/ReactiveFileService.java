@@ -0,0 +1,239 @@
+package com.tcc.edlaine.service;
+
+import com.tcc.edlaine.crosscutting.exceptions.file.FileNotFound;
+import com.tcc.edlaine.crosscutting.exceptions.file.FileUnprocessableEntity;
+import com.tcc.edlaine.crosscutting.utils.CursorPagination;
+import com.tcc.edlaine.domain.dto.CursorPage;
+import com.tcc.edlaine.domain.dto.DocumentSummary;
+import com.tcc.edlaine.domain.dto.FileJson;
+import com.tcc.edlaine.domain.dto.StoredFile;
+import com.tcc.edlaine.domain.entities.BlobEntity;
+import com.tcc.edlaine.domain.entities.DocumentEntity;
+import com.tcc.edlaine.domain.entities.FileVersion;
+import com.tcc.edlaine.domain.entities.UserEntity;
+import com.tcc.edlaine.domain.enums.DocumentType;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.ReactiveGridFsTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePartEvent;
+import org.springframework.http.codec.multipart.PartEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.data.mongodb.core.FindAndModifyOptions.options;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Variante reativa de upload, download e listagem (perfil "reactive", ver ReactiveFileApplication).
+ * Os chunks do GridFS só são lidos quando o socket pede mais dados: um cliente lento não segura
+ * thread nem acumula buffers. Mesmas regras de permissão, deduplicação e paginação do FileService.
+ * Uploads vão sempre para o GridFS; downloads também leem blobs do FileSystemBlobStore
+ * (custom.storage.backend=filesystem ou após uma BlobStorageMigration).
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+public class ReactiveFileService {
+
+    private static final int MAX_DEDUPLICATION_ATTEMPTS = 3;
+    private static final int DOWNLOAD_BUFFER_SIZE = 64 * 1024;
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final ReactiveGridFsTemplate reactiveGridFsTemplate;
+    private final FileSystemBlobStore fileSystemBlobStore;
+    private final String storageBackend;
+    private final DataSize streamMaxFileSize;
+
+    public ReactiveFileService(ReactiveMongoTemplate reactiveMongoTemplate,
+                               ReactiveGridFsTemplate reactiveGridFsTemplate,
+                               FileSystemBlobStore fileSystemBlobStore,
+                               @Value("${custom.storage.backend}") String storageBackend,
+                               @Value("${custom.upload.stream-max-file-size}") DataSize streamMaxFileSize) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.reactiveGridFsTemplate = reactiveGridFsTemplate;
+        this.fileSystemBlobStore = fileSystemBlobStore;
+        this.storageBackend = storageBackend;
+        this.streamMaxFileSize = streamMaxFileSize;
+    }
+
+    // As partes chegam como eventos (PartEventHttpMessageReader): o conteúdo da parte "file" segue do socket
+    // para o GridFS conforme é gravado, sem passar por arquivo temporário; as demais partes são descartadas
+    public Mono<FileJson> uploadFile(UserEntity user, Flux<PartEvent> parts, String type) {
+        return parts.windowUntil(PartEvent::isLast)
+                .concatMap(part -> part.switchOnFirst((first, events) -> {
+                    if (first.get() instanceof FilePartEvent filePart && "file".equals(filePart.name())) {
+                        return uploadFile(user, filePart.filename(), events.map(PartEvent::content), type);
+                    }
+                    return events.doOnNext(event -> DataBufferUtils.release(event.content())).then(Mono.<FileJson>empty());
+                }))
+                .next()
+                .switchIfEmpty(Mono.error(() -> new FileUnprocessableEntity("The multipart request has no 'file' part.")));
+    }
+
+    private Mono<FileJson> uploadFile(UserEntity user, String fileName, Flux<DataBuffer> chunks, String type) {
+        return Mono.defer(() -> {
+            FileService.validateFileExtension(fileName);
+            AuthService.validateGuestAccess(user);
+            FileService.validateUserPermissionForDocumentType(user, DocumentType.valueOf(type));
+
+            MessageDigest digest = newDigest();
+            AtomicLong length = new AtomicLong();
+            Flux<DataBuffer> content = chunks
+                    .doOnNext(buffer -> {
+                        if (length.addAndGet(buffer.readableByteCount()) > streamMaxFileSize.toBytes()) {
+                            throw new FileUnprocessableEntity("File exceeds the maximum size of " + streamMaxFileSize.toBytes() + " bytes.");
+                        }
+                        // Visões somente leitura: o hash não consome os bytes que seguem para o GridFS
+                        try (DataBuffer.ByteBufferIterator buffers = buffer.readableByteBuffers()) {
+                            buffers.forEachRemaining(digest::update);
+                        }
+                    });
+
+            return reactiveGridFsTemplate.store(content, fileName)
+                    .flatMap(fileId -> deduplicate(fileId.toHexString(), HexFormat.of().formatHex(digest.digest()), length.get()))
+                    .flatMap(storedFile -> saveDocument(fileName, user, type, storedFile));
+        });
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> downloadFileById(UserEntity user, String documentId) {
+        return Mono.fromRunnable(() -> AuthService.validateGuestAccess(user))
+                .then(reactiveMongoTemplate.findById(documentId, DocumentEntity.class))
+                .switchIfEmpty(Mono.error(() -> new FileNotFound("Document notFound")))
+                .doOnNext(document -> FileService.validateUserPermissionForDocumentType(user, document.getType()))
+                .flatMap(document -> {
+                    FileVersion latestVersion = document.getLatestVersion();
+                    if (latestVersion == null) {
+                        return Mono.error(new FileNotFound("The document has no stored version."));
+                    }
+                    // Nome da versão, não do blob: blobs deduplicados são compartilhados entre documentos
+                    return openBlob(latestVersion.getFileId())
+                            .switchIfEmpty(Mono.error(() -> new FileNotFound("The requested file was not found in the storage.")))
+                            .map(blob -> createDownloadResponse(latestVersion.getFileName(), blob));
+                });
+    }
+
+    public Mono<CursorPage<DocumentSummary>> getUserDocuments(UserEntity user, String cursor, Integer size) {
+        return Mono.defer(() -> {
+            AuthService.validateGuestAccess(user);
+            return findSummaries(query(where("customerEmail").is(user.getEmail())), cursor, size);
+        });
+    }
+
+    public Mono<CursorPage<DocumentSummary>> getAllDocuments(UserEntity user, String cursor, Integer size) {
+        return Mono.defer(() -> {
+            AuthService.validateGuestAccess(user);
+            Query query = FileService.isPrivilegedUser(user)
+                    ? new Query()
+                    : query(where("type").is(DocumentType.PUBLIC));
+            return findSummaries(query, cursor, size);
+        });
+    }
+
+    // Mesma paginação por _id decrescente e mesma projeção das consultas de resumo do DocumentRepository
+    private Mono<CursorPage<DocumentSummary>> findSummaries(Query query, String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        ObjectId after = CursorPagination.parseCursor(cursor);
+        if (after != null) {
+            query.addCriteria(where("_id").lt(after));
+        }
+        query.with(CursorPagination.newestFirst(pageSize));
+        query.fields().include("filename", "type", "createdAt", "latestVersion");
+
+        return reactiveMongoTemplate.find(query, DocumentEntity.class)
+                .map(DocumentSummary::from)
+                .collectList()
+                .map(summaries -> CursorPage.of(summaries, pageSize, DocumentSummary::getId));
+    }
+
+    private Mono<FileJson> saveDocument(String fileName, UserEntity user, String type, StoredFile storedFile) {
+        DocumentEntity document = new DocumentEntity(fileName, user.getEmail(), type);
+        FileVersion version = document.addVersion(storedFile.getFileId(), fileName, LocalDateTime.now(), storedFile.getContentHash());
+
+        return reactiveMongoTemplate.insert(version)
+                .then(reactiveMongoTemplate.insert(document))
+                .doOnNext(saved -> log.info("Document saved: {}", saved.getId()))
+                .map(saved -> new FileJson(saved.getId(), saved.getFilename()));
+    }
+
+    // Mesma regra do FileStorageService: reaproveita o blob com o mesmo hash e descarta o recém-gravado
+    private Mono<StoredFile> deduplicate(String fileId, String contentHash, long length) {
+        Mono<StoredFile> reuseExisting = reactiveMongoTemplate.findAndModify(
+                        query(where("contentHash").is(contentHash).and("refCount").gt(0)),
+                        new Update().inc("refCount", 1), options().returnNew(true), BlobEntity.class)
+                .flatMap(existing -> deleteFile(fileId)
+                        .doOnSuccess(deleted -> log.info("Duplicated content {} reusing blob {}", contentHash, existing.getId()))
+                        .thenReturn(new StoredFile(existing.getId(), contentHash, existing.getLength())));
+        Mono<StoredFile> registerNew = Mono.defer(() -> reactiveMongoTemplate.insert(new BlobEntity(fileId, contentHash, length))
+                .thenReturn(new StoredFile(fileId, contentHash, length)));
+
+        return reuseExisting.switchIfEmpty(registerNew)
+                .retryWhen(Retry.max(MAX_DEDUPLICATION_ATTEMPTS - 1).filter(DuplicateKeyException.class::isInstance))
+                .onErrorResume(e -> deleteFile(fileId).then(Mono.error(e)));
+    }
+
+    private Mono<Void> deleteFile(String fileId) {
+        return reactiveGridFsTemplate.delete(query(where("_id").is(new ObjectId(fileId))));
+    }
+
+    // Procura no backend ativo primeiro, como o FileStorageService: o GridFS pelo driver reativo e o
+    // sistema de arquivos em boundedElastic (FileChannel é bloqueante), para blobs gravados ou migrados para lá
+    private Mono<BlobContent> openBlob(String fileId) {
+        Mono<BlobContent> fromGridFs = reactiveGridFsTemplate.findOne(query(where("_id").is(fileId)))
+                .flatMap(file -> reactiveGridFsTemplate.getResource(file)
+                        .map(resource -> new BlobContent(file.getLength(), resource.getDownloadStream())));
+        Mono<BlobContent> fromFileSystem = Mono.fromCallable(() -> fileSystemBlobStore.stat(fileId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty)
+                .map(stat -> new BlobContent(stat.length(), DataBufferUtils.readInputStream(
+                                () -> fileSystemBlobStore.open(fileId, 0), DefaultDataBufferFactory.sharedInstance, DOWNLOAD_BUFFER_SIZE)
+                        .subscribeOn(Schedulers.boundedElastic())));
+
+        return GridFsBlobStore.NAME.equals(storageBackend)
+                ? fromGridFs.switchIfEmpty(fromFileSystem)
+                : fromFileSystem.switchIfEmpty(fromGridFs);
+    }
+
+    private static ResponseEntity<Flux<DataBuffer>> createDownloadResponse(String fileName, BlobContent blob) {
+        String mimeType = FileService.getMimeType(FileService.getFileExtension(fileName));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(mimeType))
+                .contentLength(blob.length())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(blob.content());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record BlobContent(long length, Flux<DataBuffer> content) {
+    }
+}
@@ -0,0 +1,141 @@
+package com.tcc.edlaine.service;
+
+import com.tcc.edlaine.crosscutting.properties.notification.NotificationProperties;
+import com.tcc.edlaine.domain.entities.SharedRecord;
+import com.tcc.edlaine.domain.enums.NotificationStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.data.mongodb.core.FindAndModifyOptions.options;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Envia em segundo plano os e-mails de compartilhamento pendentes em share_records.
+ * Cada registro é reservado com findAndModify (vários nós podem rodar o dispatcher), o lote
+ * sai numa única conexão SMTP e as falhas voltam para a fila com backoff exponencial.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "custom.notification.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class ShareNotificationDispatcher {
+
+    private final MongoTemplate mongoTemplate;
+    private final EmailService emailService;
+    private final NotificationProperties properties;
+
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final Timer deliveryLatency;
+    private final Timer batchDuration;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    public ShareNotificationDispatcher(MongoTemplate mongoTemplate,
+                                       EmailService emailService,
+                                       NotificationProperties properties,
+                                       MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.emailService = emailService;
+        this.properties = properties;
+
+        Gauge.builder("share.notification.queue.depth", queueDepth, AtomicLong::get)
+                .description("Compartilhamentos aguardando envio de e-mail")
+                .register(meterRegistry);
+        this.deliveryLatency = Timer.builder("share.notification.latency")
+                .description("Tempo entre o compartilhamento e o envio do e-mail")
+                .register(meterRegistry);
+        this.batchDuration = Timer.builder("share.notification.batch")
+                .description("Duração do envio de um lote SMTP")
+                .register(meterRegistry);
+        this.sentCounter = meterRegistry.counter("share.notification.delivery", "outcome", "sent");
+        this.retriedCounter = meterRegistry.counter("share.notification.delivery", "outcome", "retry");
+        this.failedCounter = meterRegistry.counter("share.notification.delivery", "outcome", "failed");
+    }
+
+    @Scheduled(fixedDelayString = "${custom.notification.poll-interval-ms:5000}")
+    public void dispatchPending() {
+        List<SharedRecord> batch = claimBatch();
+        if (!batch.isEmpty()) {
+            Map<String, Exception> failures = batchDuration.record(() -> emailService.sendShareNotifications(batch));
+            batch.forEach(record -> complete(record, failures.get(record.getId())));
+            log.info("Share notifications dispatched: {} sent, {} failed", batch.size() - failures.size(), failures.size());
+        }
+
+        queueDepth.set(mongoTemplate.count(query(where("notificationStatus")
+                .in(NotificationStatus.PENDING, NotificationStatus.SENDING)), SharedRecord.class));
+    }
+
+    // Reserva pendentes vencidos e também envios cuja reserva expirou (nó que caiu no meio do lote)
+    private List<SharedRecord> claimBatch() {
+        List<SharedRecord> batch = new ArrayList<>();
+        while (batch.size() < properties.getBatchSize()) {
+            LocalDateTime now = LocalDateTime.now();
+            Query due = query(where("notificationStatus").in(NotificationStatus.PENDING, NotificationStatus.SENDING)
+                    .and("nextNotificationAt").lte(now))
+                    .with(Sort.by(Sort.Direction.ASC, "nextNotificationAt"));
+
+            SharedRecord claimed = mongoTemplate.findAndModify(due,
+                    new Update()
+                            .set("notificationStatus", NotificationStatus.SENDING)
+                            .set("nextNotificationAt", now.plus(properties.getLease())),
+                    options().returnNew(true),
+                    SharedRecord.class);
+
+            if (claimed == null) {
+                break;
+            }
+            batch.add(claimed);
+        }
+        return batch;
+    }
+
+    private void complete(SharedRecord record, Exception failure) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update().inc("notificationAttempts", 1);
+
+        if (failure == null) {
+            update.set("notificationStatus", NotificationStatus.SENT)
+                    .set("notifiedAt", now)
+                    .unset("nextNotificationAt")
+                    .unset("lastNotificationError");
+            sentCounter.increment();
+            deliveryLatency.record(Duration.between(record.getSharedAt(), now));
+        } else if (record.getNotificationAttempts() + 1 >= properties.getMaxAttempts()) {
+            update.set("notificationStatus", NotificationStatus.FAILED)
+                    .unset("nextNotificationAt")
+                    .set("lastNotificationError", failure.getMessage());
+            failedCounter.increment();
+            log.error("Giving up share notification {} to {}: {}", record.getId(), record.getEmail(), failure.getMessage());
+        } else {
+            update.set("notificationStatus", NotificationStatus.PENDING)
+                    .set("nextNotificationAt", now.plus(backoff(record.getNotificationAttempts())))
+                    .set("lastNotificationError", failure.getMessage());
+            retriedCounter.increment();
+        }
+
+        mongoTemplate.updateFirst(query(where("_id").is(record.getId())), update, SharedRecord.class);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts, 20));
+        return delay.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : delay;
+    }
+}
@@ -1,20 +1,27 @@
 package com.tcc.edlaine.service;
 
+import com.tcc.edlaine.crosscutting.exceptions.general.TooManyRequestsException;
 import com.tcc.edlaine.crosscutting.exceptions.general.UnprocessableEntityErrorException;
 import com.tcc.edlaine.crosscutting.exceptions.general.UserDuplicatedKeyException;
 import com.tcc.edlaine.crosscutting.exceptions.user.UserBadRequest;
 import com.tcc.edlaine.crosscutting.exceptions.user.UserNotFound;
+import com.tcc.edlaine.crosscutting.utils.CursorPagination;
+import com.tcc.edlaine.domain.dto.CursorPage;
 import com.tcc.edlaine.domain.entities.UserEntity;
 import com.tcc.edlaine.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 @Slf4j
 @Service
@@ -32,6 +39,8 @@ public class UserService {
             userRepository.save(userEntity);
             userEntity.setPassword(null);
             return ResponseEntity.ok(userEntity);
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (DuplicateKeyException e) {
             log.error("Error registering user with duplicated ->: {}", userEntity.getEmail());
             throw new UserDuplicatedKeyException("Error registering user with duplicated -> " + e.getMessage());
@@ -44,7 +53,7 @@ public class UserService {
     public ResponseEntity<UserEntity> getUserById(String id) {
         try {
             UserEntity user = authService.getAuthenticatedUser();
-            UserEntity recoveredUser = userRepository.findById(id).orElseThrow(() -> new UserNotFound("user not found"));
+            UserEntity recoveredUser = findUserById(id);
             AuthService.validateAdminAccessOrOwnerData(user, recoveredUser.getEmail());
             user.setPassword(null);
             log.info("User retornado::: {}", recoveredUser);
@@ -58,18 +67,28 @@ public class UserService {
     public ResponseEntity<UserEntity> updateUser(String id, UserEntity userEntity) {
         try{
             UserEntity user = authService.getAuthenticatedUser();
-            UserEntity existingUser = getUserById(id).getBody();
-            if(existingUser == null){
-                throw new UserNotFound("user not found");
-            }
+            UserEntity existingUser = findUserById(id);
 
             AuthService.validateAdminAccessOrOwnerData(user, existingUser.getEmail());
 
+            String previousEmail = existingUser.getEmail();
+            boolean revokeTokens = existingUser.getPermissionLevel() != userEntity.getPermissionLevel()
+                    || !Objects.equals(previousEmail, userEntity.getEmail());
             existingUser.setUsername(userEntity.getUsername());
             existingUser.setCpf(userEntity.getCpf());
             existingUser.setEmail(userEntity.getEmail());
             existingUser.setPermissionLevel(userEntity.getPermissionLevel());
+            if (revokeTokens) {
+                existingUser.setTokenVersion(existingUser.getTokenVersion() + 1);
+                existingUser.setTokenRevokedAt(LocalDateTime.now());
+            }
             userRepository.save(existingUser);
+            if (revokeTokens) {
+                authService.revokeTokens(previousEmail, existingUser.getTokenVersion());
+                authService.revokeTokens(existingUser.getEmail(), existingUser.getTokenVersion());
+            }
+            authService.evictAuthenticatedUser(previousEmail);
+            authService.evictAuthenticatedUser(existingUser.getEmail());
 
             existingUser.setPassword(null);
             return ResponseEntity.ok(existingUser);
@@ -82,17 +101,17 @@ public class UserService {
     public HttpStatus updatePassword(String id, String password) {
         try{
             UserEntity user = authService.getAuthenticatedUser();
-            UserEntity existingUser = getUserById(id).getBody();
-            if(existingUser == null){
-                throw new UserNotFound("user not found");
-            }
+            UserEntity existingUser = findUserById(id);
 
             AuthService.validateAdminAccessOrOwnerData(user, existingUser.getEmail());
 
             existingUser.setPassword(authService.encriptPassword(password));
             userRepository.save(existingUser);
+            authService.evictAuthenticatedUser(existingUser.getEmail());
 
             return HttpStatus.OK;
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error update user. {}", e.getMessage());
             throw new UnprocessableEntityErrorException("Error recovered user -> " + e.getMessage());
@@ -104,28 +123,42 @@ public class UserService {
         try{
             UserEntity user = authService.getAuthenticatedUser();
             AuthService.validateAdminAccess(user);
-            UserEntity recoveredUser = userRepository.findById(id)
-                    .orElseThrow(() -> new UserNotFound("user not found"));
+            UserEntity recoveredUser = findUserById(id);
 
             recoveredUser.setActive(active);
+            recoveredUser.setTokenVersion(recoveredUser.getTokenVersion() + 1);
+            recoveredUser.setTokenRevokedAt(LocalDateTime.now());
             userRepository.save(recoveredUser);
+            authService.revokeTokens(recoveredUser.getEmail(), recoveredUser.getTokenVersion());
+            authService.evictAuthenticatedUser(recoveredUser.getEmail());
             return ResponseEntity.ok("Successfully change status user");
         }catch (Exception e) {
             throw new UserBadRequest("Error to change status user. Please try again.");
         }
     }
 
-    public ResponseEntity<List<UserEntity>> getAllUsers() {
+    public ResponseEntity<CursorPage<UserEntity>> getAllUsers(String cursor, Integer size) {
         try {
             UserEntity user = authService.getAuthenticatedUser();
             AuthService.validateAdminAccess(user);
-            List<UserEntity> users = userRepository.findAll();
+            int pageSize = CursorPagination.pageSize(size);
+            ObjectId after = CursorPagination.parseCursor(cursor);
+            Pageable pageable = CursorPagination.newestFirst(pageSize);
+
+            List<UserEntity> users = after == null
+                    ? userRepository.findAllBy(pageable)
+                    : userRepository.findByIdLessThan(after, pageable);
             users.forEach(userEntity -> userEntity.setPassword(null));
-            return ResponseEntity.ok(users);
+            return ResponseEntity.ok(CursorPage.of(users, pageSize, UserEntity::getId));
         } catch (Exception e) {
             log.error("Error recovered user. {}", e.getMessage());
             throw new UnprocessableEntityErrorException("Error recovered user -> " + e.getMessage());
         }
         
     }
+
+    private UserEntity findUserById(String id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new UserNotFound("user not found"));
+    }
 }
@@ -0,0 +1,94 @@
+package com.tcc.edlaine;
+
+import com.tcc.edlaine.crosscutting.utils.JwtTokenProvider;
+import com.tcc.edlaine.domain.entities.UserEntity;
+import com.tcc.edlaine.domain.enums.PermissionLevel;
+import com.tcc.edlaine.repository.UserRepository;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import io.jsonwebtoken.Claims;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Mongo embarcado (flapdoodle) para os testes de integração: um mongod por JVM e um único contexto Spring
+// para todas as subclasses. Cada teste começa com as coleções vazias (os índices são mantidos)
+// e sem as tarefas de fundo que disputariam os mesmos registros (seed, e-mails, indexação, prévias)
+@SpringBootTest(properties = {
+        "custom.bootstrap.seed-users.enabled=false",
+        "custom.notification.dispatcher.enabled=false",
+        "custom.search.index.enabled=false",
+        "custom.preview.enabled=false",
+        "custom.cache.blobs.enabled=false"
+})
+@AutoConfigureMockMvc
+public abstract class EmbeddedMongoTest {
+
+    private static final AtomicInteger USER_SEQUENCE = new AtomicInteger();
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+
+    @Autowired
+    protected MockMvc mockMvc;
+    @Autowired
+    protected MongoTemplate mongoTemplate;
+    @Autowired
+    protected UserRepository userRepository;
+    @Autowired
+    protected JwtTokenProvider jwtTokenProvider;
+
+    // Parado só no shutdown, depois do contexto Spring em cache
+    @DynamicPropertySource
+    static synchronized void mongoProperties(DynamicPropertyRegistry registry) {
+        if (mongod == null) {
+            mongod = Mongod.instance().start(Version.Main.V7_0);
+            Runtime.getRuntime().addShutdownHook(new Thread(mongod::close));
+        }
+        registry.add("spring.data.mongodb.uri", () -> "mongodb://" + mongod.current().getServerAddress() + "/tcc-edlaine-test");
+    }
+
+    @BeforeEach
+    void clearCollections() {
+        mongoTemplate.getCollectionNames().stream()
+                .filter(collection -> !collection.startsWith("system."))
+                .forEach(collection -> mongoTemplate.getCollection(collection).deleteMany(new Document()));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // E-mail e CPF novos a cada chamada: os caches de usuário e de revogação sobrevivem entre os testes
+    protected UserEntity createUser(PermissionLevel permissionLevel) {
+        int sequence = USER_SEQUENCE.incrementAndGet();
+        return userRepository.insert(new UserEntity("Test User " + sequence, "%011d".formatted(sequence),
+                "test.user" + sequence + "@gmail.com", null, permissionLevel, true));
+    }
+
+    protected String bearerToken(UserEntity user) {
+        return "Bearer " + jwtTokenProvider.generateToken(user);
+    }
+
+    // Autentica a thread do teste como o JwtAuthenticationFilter, para chamar os serviços diretamente
+    protected void authenticate(UserEntity user) {
+        Claims claims = jwtTokenProvider.parseClaims(jwtTokenProvider.generateToken(user));
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(user.getEmail(), null, Collections.emptyList());
+        authentication.setDetails(claims);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+}
@@ -1,17 +1,9 @@
 package com.tcc.edlaine;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.test.web.servlet.MockMvc;
 
-@SpringBootTest
-@AutoConfigureMockMvc
-class TccEdlaineBsiApplicationTests {
-
-	@Autowired
-	private MockMvc mockMvc;
+// Os índices são criados na subida (auto-index-creation): o contexto precisa de um Mongo de verdade
+class TccEdlaineBsiApplicationTests extends EmbeddedMongoTest {
 
 	@Test
 	void contextLoads() {
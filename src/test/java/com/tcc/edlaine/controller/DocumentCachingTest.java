@@ -0,0 +1,147 @@
+package com.tcc.edlaine.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tcc.edlaine.EmbeddedMongoTest;
+import com.tcc.edlaine.domain.entities.UserEntity;
+import com.tcc.edlaine.domain.enums.PermissionLevel;
+import com.tcc.edlaine.repository.DocumentRepository;
+import com.tcc.edlaine.service.FileStorageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DocumentCachingTest extends EmbeddedMongoTest {
+
+    @Autowired
+    private DocumentRepository documentRepository;
+    @Autowired
+    private FileStorageService fileStorageService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // A revisão entra no ETag: uma nova versão invalida a cópia que o cliente guardou
+    @Test
+    void revalidatesTheDocumentAgainstItsRevision() throws Exception {
+        UserEntity owner = createUser(PermissionLevel.USER);
+        String documentId = upload(owner, "/files/upload", "primeira versão");
+
+        MockHttpServletResponse first = mockMvc.perform(get("/files/" + documentId)
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(owner)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse();
+        String eTag = first.getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/files/" + documentId)
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(owner))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        upload(owner, "/files/upload/" + documentId, "segunda versão");
+
+        String newETag = mockMvc.perform(get("/files/" + documentId)
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(owner))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+    }
+
+    // O 304 sai só com os metadados: nem com o blob apagado do storage o download é lido
+    @Test
+    void answersNotModifiedForTheLatestVersionWithoutReadingTheStorage() throws Exception {
+        UserEntity owner = createUser(PermissionLevel.USER);
+        String documentId = upload(owner, "/files/upload", "conteúdo da nota");
+
+        String eTag = mockMvc.perform(get("/files/download/" + documentId)
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(owner)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(content().bytes(utf8("conteúdo da nota")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        fileStorageService.deleteFile(documentRepository.findById(documentId).orElseThrow().getLatestVersion().getFileId());
+
+        mockMvc.perform(get("/files/download/" + documentId)
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(owner))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void servesTheLatestContentOnceANewVersionIsPublished() throws Exception {
+        UserEntity owner = createUser(PermissionLevel.USER);
+        String documentId = upload(owner, "/files/upload", "primeira versão");
+        String eTag = mockMvc.perform(get("/files/download/" + documentId)
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(owner)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        upload(owner, "/files/upload/" + documentId, "segunda versão");
+
+        String newETag = mockMvc.perform(get("/files/download/" + documentId)
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(owner))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(utf8("segunda versão")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+    }
+
+    // Versão gravada nunca muda: pode ficar um ano no cache do navegador
+    @Test
+    void marksStoredVersionsAsImmutable() throws Exception {
+        UserEntity owner = createUser(PermissionLevel.USER);
+        String documentId = upload(owner, "/files/upload", "primeira versão");
+        upload(owner, "/files/upload/" + documentId, "segunda versão");
+
+        MockHttpServletResponse response = mockMvc.perform(get("/files/download-version/" + documentId + "/0")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(owner)))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(utf8("primeira versão")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("max-age=31536000")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andReturn().getResponse();
+
+        mockMvc.perform(get("/files/download-version/" + documentId + "/0")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(owner))
+                        .header(HttpHeaders.IF_NONE_MATCH, response.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, response.getHeader(HttpHeaders.CACHE_CONTROL)));
+    }
+
+    // Upload (sem documentId) ou nova versão (com documentId) pelo endpoint multipart
+    private String upload(UserEntity owner, String url, String content) throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "nota.pdf", "application/pdf", utf8(content));
+        String body = mockMvc.perform(multipart(url).file(file)
+                        .param("type", "PUBLIC")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(owner)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode created = objectMapper.readTree(body);
+        assertEquals("nota.pdf", created.get("fileName").asText());
+        return created.get("id").asText();
+    }
+
+    // Download sem charset no Content-Type: compara os bytes, não o texto
+    private static byte[] utf8(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
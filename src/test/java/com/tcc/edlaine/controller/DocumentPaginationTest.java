@@ -0,0 +1,126 @@
+package com.tcc.edlaine.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tcc.edlaine.EmbeddedMongoTest;
+import com.tcc.edlaine.domain.entities.DocumentEntity;
+import com.tcc.edlaine.domain.entities.UserEntity;
+import com.tcc.edlaine.domain.enums.DocumentType;
+import com.tcc.edlaine.domain.enums.PermissionLevel;
+import com.tcc.edlaine.repository.DocumentRepository;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DocumentPaginationTest extends EmbeddedMongoTest {
+
+    @Autowired
+    private DocumentRepository documentRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void walksTheOwnDocumentsNewestFirstWithoutGapsOrRepeats() throws Exception {
+        UserEntity owner = createUser(PermissionLevel.USER);
+        List<String> ownIds = createDocuments(owner, DocumentType.PUBLIC, 5);
+        createDocuments(createUser(PermissionLevel.USER), DocumentType.PUBLIC, 2);
+
+        List<Integer> pageSizes = new ArrayList<>();
+        List<String> listed = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = page("/files/my-files?size=2" + (cursor == null ? "" : "&cursor=" + cursor), owner);
+            page.get("content").forEach(summary -> listed.add(summary.get("id").asText()));
+            pageSizes.add(page.get("content").size());
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+
+        assertEquals(List.of(2, 2, 1), pageSizes);
+        assertEquals(newestFirst(ownIds), listed);
+    }
+
+    // A consulta pede size + 1: uma página exatamente cheia não anuncia uma próxima vazia
+    @Test
+    void omitsTheCursorWhenTheLastPageIsExactlyFull() throws Exception {
+        UserEntity owner = createUser(PermissionLevel.USER);
+        createDocuments(owner, DocumentType.PUBLIC, 3);
+
+        JsonNode page = page("/files/my-files?size=3", owner);
+
+        assertEquals(3, page.get("content").size());
+        assertFalse(page.hasNonNull("nextCursor"));
+    }
+
+    // O cursor é exclusivo: a página seguinte começa no documento imediatamente mais antigo
+    @Test
+    void resumesStrictlyAfterTheCursor() throws Exception {
+        UserEntity owner = createUser(PermissionLevel.USER);
+        List<String> ids = newestFirst(createDocuments(owner, DocumentType.PUBLIC, 4));
+
+        JsonNode page = page("/files/my-files?size=10&cursor=" + ids.get(1), owner);
+
+        List<String> listed = new ArrayList<>();
+        page.get("content").forEach(summary -> listed.add(summary.get("id").asText()));
+        assertEquals(ids.subList(2, 4), listed);
+    }
+
+    @Test
+    void pagesOnlyPublicDocumentsForUsersWithoutPrivilege() throws Exception {
+        UserEntity user = createUser(PermissionLevel.USER);
+        List<String> publicIds = createDocuments(user, DocumentType.PUBLIC, 3);
+        createDocuments(user, DocumentType.FINANCIAL, 3);
+
+        JsonNode first = page("/files/all-files?size=2", user);
+        JsonNode second = page("/files/all-files?size=2&cursor=" + first.get("nextCursor").asText(), user);
+
+        List<String> listed = new ArrayList<>();
+        first.get("content").forEach(summary -> listed.add(summary.get("id").asText()));
+        second.get("content").forEach(summary -> listed.add(summary.get("id").asText()));
+        assertEquals(newestFirst(publicIds), listed);
+        assertFalse(second.hasNonNull("nextCursor"));
+    }
+
+    @Test
+    void rejectsACursorThatIsNotAnObjectId() throws Exception {
+        UserEntity owner = createUser(PermissionLevel.USER);
+
+        int status = mockMvc.perform(get("/files/my-files?cursor=not-an-id")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(owner)))
+                .andReturn().getResponse().getStatus();
+
+        assertTrue(status >= 400 && status < 500);
+    }
+
+    private JsonNode page(String url, UserEntity user) throws Exception {
+        String body = mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, bearerToken(user)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private List<String> createDocuments(UserEntity owner, DocumentType type, int count) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DocumentEntity document = new DocumentEntity("documento-" + i + ".pdf", owner.getEmail(), type.name());
+            document.addVersion(new ObjectId().toHexString(), document.getFilename(), LocalDateTime.now(), null);
+            ids.add(documentRepository.insert(document).getId());
+        }
+        return ids;
+    }
+
+    private static List<String> newestFirst(List<String> ids) {
+        return ids.stream().sorted(Comparator.reverseOrder()).toList();
+    }
+}
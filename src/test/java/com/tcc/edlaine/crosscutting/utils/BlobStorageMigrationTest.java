@@ -0,0 +1,107 @@
+package com.tcc.edlaine.crosscutting.utils;
+
+import com.tcc.edlaine.service.BlobStore;
+import com.tcc.edlaine.service.FileSystemBlobStore;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlobStorageMigrationTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void copiesEveryBlobAndKeepsTheSource() throws IOException {
+        BlobStore source = store("origem");
+        BlobStore target = store("destino");
+        String first = save(source, "primeiro blob");
+        String second = save(source, "segundo blob");
+
+        migration(source, target, false).onApplicationReady();
+
+        assertContent(target, first, "primeiro blob");
+        assertContent(target, second, "segundo blob");
+        assertContent(source, first, "primeiro blob");
+    }
+
+    // Execução retomada: blob já copiado com o mesmo tamanho não é regravado
+    @Test
+    void skipsBlobsAlreadyPresentWithTheSameLength() throws IOException {
+        BlobStore source = store("origem");
+        BlobStore target = store("destino");
+        String copied = save(source, "blob copiado");
+        target.save(copied, copied, new ByteArrayInputStream(bytes("blob COPIADO")));
+        String truncated = save(source, "blob interrompido");
+        target.save(truncated, truncated, new ByteArrayInputStream(bytes("blob")));
+
+        migration(source, target, false).onApplicationReady();
+
+        assertContent(target, copied, "blob COPIADO");
+        assertContent(target, truncated, "blob interrompido");
+    }
+
+    @Test
+    void deletesTheSourceOnceTheCopyIsVerified() throws IOException {
+        BlobStore source = store("origem");
+        BlobStore target = store("destino");
+        String blobId = save(source, "blob migrado");
+
+        migration(source, target, true).onApplicationReady();
+
+        assertContent(target, blobId, "blob migrado");
+        assertTrue(source.stat(blobId).isEmpty());
+    }
+
+    @Test
+    void refusesTheSameBackendAsSourceAndTarget() {
+        BlobStore store = store("origem");
+
+        assertThrows(IllegalStateException.class, () -> migration(store, store, false));
+        assertThrows(IllegalStateException.class,
+                () -> new BlobStorageMigration(List.of(store), "origem", "inexistente", false));
+    }
+
+    private static BlobStorageMigration migration(BlobStore source, BlobStore target, boolean deleteSource) {
+        return new BlobStorageMigration(List.of(source, target), source.name(), target.name(), deleteSource);
+    }
+
+    // Dois backends de arquivo com nomes diferentes fazem o papel de origem e destino
+    private BlobStore store(String name) {
+        return new FileSystemBlobStore(tempDir.resolve(name)) {
+            @Override
+            public String name() {
+                return name;
+            }
+        };
+    }
+
+    private static String save(BlobStore store, String content) throws IOException {
+        String blobId = new ObjectId().toHexString();
+        store.save(blobId, blobId, new ByteArrayInputStream(bytes(content)));
+        return blobId;
+    }
+
+    private static void assertContent(BlobStore store, String blobId, String content) throws IOException {
+        assertEquals(bytes(content).length, store.stat(blobId).orElseThrow().length());
+        try (InputStream inputStream = store.open(blobId, 0)) {
+            assertArrayEquals(bytes(content), inputStream.readAllBytes());
+        }
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,86 @@
+package com.tcc.edlaine.crosscutting.utils;
+
+import com.tcc.edlaine.EmbeddedMongoTest;
+import com.tcc.edlaine.domain.entities.UserEntity;
+import com.tcc.edlaine.domain.enums.PermissionLevel;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpHeaders;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TokenRevocationRegistryTest extends EmbeddedMongoTest {
+
+    // No nó que atende a mudança de status a revogação vale na requisição seguinte
+    @Test
+    void rejectsTokensIssuedBeforeTheUserWasDisabledAndReenabled() throws Exception {
+        UserEntity admin = createUser(PermissionLevel.ADMIN);
+        UserEntity user = createUser(PermissionLevel.USER);
+        String oldToken = bearerToken(user);
+
+        mockMvc.perform(get("/files/my-files").header(HttpHeaders.AUTHORIZATION, oldToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/users/" + user.getId() + "/disable").header(HttpHeaders.AUTHORIZATION, bearerToken(admin)))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/users/" + user.getId() + "/enable").header(HttpHeaders.AUTHORIZATION, bearerToken(admin)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/files/my-files").header(HttpHeaders.AUTHORIZATION, oldToken))
+                .andExpect(status().isUnauthorized());
+        UserEntity reenabled = userRepository.findById(user.getId()).orElseThrow();
+        mockMvc.perform(get("/files/my-files").header(HttpHeaders.AUTHORIZATION, bearerToken(reenabled)))
+                .andExpect(status().isOk());
+    }
+
+    // Outro nó: a primeira carga lê as revogações ainda dentro da validade do token e as anteriores ao tokenRevokedAt
+    @Test
+    void firstLoadReadsRevocationsWithinTheTokenValidity() {
+        UserEntity recent = revoked(createUser(PermissionLevel.USER), 1, LocalDateTime.now().minusHours(1));
+        UserEntity expired = revoked(createUser(PermissionLevel.USER), 1,
+                LocalDateTime.now().minus(JwtTokenProvider.TOKEN_VALIDITY).minusMinutes(1));
+        UserEntity legacy = revoked(createUser(PermissionLevel.USER), 2, null);
+
+        TokenRevocationRegistry otherNode = new TokenRevocationRegistry(mongoTemplate);
+        otherNode.refresh();
+
+        assertTrue(otherNode.isRevoked(recent.getEmail(), 0));
+        assertFalse(otherNode.isRevoked(recent.getEmail(), 1));
+        assertFalse(otherNode.isRevoked(expired.getEmail(), 0)); // Tokens anteriores já expiraram
+        assertTrue(otherNode.isRevoked(legacy.getEmail(), 1));
+    }
+
+    @Test
+    void laterRefreshesPickUpOnlyNewRevocations() {
+        UserEntity user = createUser(PermissionLevel.USER);
+        TokenRevocationRegistry otherNode = new TokenRevocationRegistry(mongoTemplate);
+        otherNode.refresh();
+        assertFalse(otherNode.isRevoked(user.getEmail(), 0));
+
+        revoked(user, 1, LocalDateTime.now());
+        otherNode.refresh();
+        assertTrue(otherNode.isRevoked(user.getEmail(), 0));
+
+        revoked(user, 2, LocalDateTime.now());
+        otherNode.refresh();
+        assertTrue(otherNode.isRevoked(user.getEmail(), 1));
+        assertFalse(otherNode.isRevoked(user.getEmail(), 2));
+    }
+
+    // Grava direto no Mongo, como faria o UserService de outro nó
+    private UserEntity revoked(UserEntity user, int tokenVersion, LocalDateTime revokedAt) {
+        Update update = new Update().set("tokenVersion", tokenVersion);
+        if (revokedAt != null) {
+            update.set("tokenRevokedAt", revokedAt);
+        }
+        mongoTemplate.updateFirst(query(where("_id").is(user.getId())), update, UserEntity.class);
+        return user;
+    }
+}
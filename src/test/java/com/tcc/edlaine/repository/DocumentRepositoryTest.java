@@ -1,30 +1,120 @@
 package com.tcc.edlaine.repository;
 
-import org.springframework.boot.test.context.SpringBootTest;
-
-//@Testcontainers
-//@SpringBootTest
-public class DocumentRepositoryTest {
-
-//    @Container
-//    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:5.0.10");
-//
-//    @DynamicPropertySource
-//    static void setProperties(DynamicPropertyRegistry registry) {
-//        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
-//    }
-//
-//    @Autowired
-//    private DocumentRepository repository;
-//
-//    @Test
-//    void testFindByUserId() {
-//        DocumentEntity doc = new DocumentEntity();
-//        doc.setUserId("123");
-//        doc.setFilename("teste.pdf");
-//        repository.save(doc);
-//
-//        List<DocumentEntity> results = repository.findByUserId("123");
-//        assertFalse(results.isEmpty());
-//    }
+import com.tcc.edlaine.EmbeddedMongoTest;
+import com.tcc.edlaine.domain.entities.DocumentEntity;
+import com.tcc.edlaine.domain.entities.FileVersion;
+import com.tcc.edlaine.domain.entities.UserEntity;
+import com.tcc.edlaine.domain.enums.DocumentType;
+import com.tcc.edlaine.domain.enums.PermissionLevel;
+import com.tcc.edlaine.service.FileService;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DocumentRepositoryTest extends EmbeddedMongoTest {
+
+    private static final int WRITERS = 12;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+    @Autowired
+    private FileVersionRepository fileVersionRepository;
+    @Autowired
+    private FileService fileService;
+
+    @Test
+    void concurrentAllocationsReserveDistinctSequences() throws Exception {
+        DocumentEntity document = createDocument("test.owner@gmail.com");
+
+        List<Integer> sequences = runConcurrently(() -> {
+            DocumentEntity allocated = documentRepository.allocateVersion(document.getId(), "nova-versao.pdf", document.getCustomerEmail());
+            return allocated.getVersionCount() - 1;
+        });
+
+        assertEquals(IntStream.rangeClosed(1, WRITERS).boxed().toList(), sequences.stream().sorted().toList());
+        assertEquals(WRITERS + 1, documentRepository.findById(document.getId()).orElseThrow().getVersionCount());
+    }
+
+    // Upload que termina depois de um mais novo não volta latestVersion, mas ainda muda a revisão (ETag)
+    @Test
+    void publishesOnlyNewerVersionsAsLatest() {
+        DocumentEntity document = createDocument("test.owner@gmail.com");
+        long revision = documentRepository.findById(document.getId()).orElseThrow().getRevision();
+
+        documentRepository.publishLatestVersion(version(document, 2));
+        documentRepository.publishLatestVersion(version(document, 1));
+
+        DocumentEntity stored = documentRepository.findById(document.getId()).orElseThrow();
+        assertEquals(2, stored.getLatestVersion().getSequence());
+        assertEquals(revision + 2, stored.getRevision());
+    }
+
+    @Test
+    void concurrentUpdatesKeepEveryVersionAndPublishTheLast() throws Exception {
+        UserEntity owner = createUser(PermissionLevel.ADMIN);
+        DocumentEntity document = createDocument(owner.getEmail());
+
+        runConcurrently(() -> {
+            authenticate(owner);
+            byte[] content = ("versão " + new ObjectId()).getBytes(StandardCharsets.UTF_8);
+            return fileService.updateFile("nova-versao.pdf", new ByteArrayInputStream(content), document.getId()).getStatusCode().value();
+        });
+
+        List<Integer> sequences = fileVersionRepository.findByDocumentId(document.getId(), Pageable.unpaged()).stream()
+                .map(FileVersion::getSequence)
+                .sorted()
+                .toList();
+        assertEquals(IntStream.rangeClosed(0, WRITERS).boxed().toList(), sequences);
+        assertEquals(WRITERS, documentRepository.findById(document.getId()).orElseThrow().getLatestVersion().getSequence());
+    }
+
+    private DocumentEntity createDocument(String owner) {
+        DocumentEntity document = new DocumentEntity("original.pdf", owner, DocumentType.PUBLIC.name());
+        FileVersion first = document.addVersion(new ObjectId().toHexString(), "original.pdf", LocalDateTime.now(), null);
+        fileVersionRepository.insert(first);
+        return documentRepository.insert(document);
+    }
+
+    private static FileVersion version(DocumentEntity document, int sequence) {
+        return new FileVersion(document.getId(), sequence, new ObjectId().toHexString(), "versao-" + sequence + ".pdf", LocalDateTime.now(), null);
+    }
+
+    // Todas as threads partem juntas para maximizar a disputa pelo mesmo documento
+    private static <T> List<T> runConcurrently(Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,229 @@
+package com.tcc.edlaine.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tcc.edlaine.EmbeddedMongoTest;
+import com.tcc.edlaine.crosscutting.exceptions.file.FileUnprocessableEntity;
+import com.tcc.edlaine.domain.dto.BatchUploadItem;
+import com.tcc.edlaine.domain.entities.DocumentEntity;
+import com.tcc.edlaine.domain.entities.UserEntity;
+import com.tcc.edlaine.domain.enums.PermissionLevel;
+import com.tcc.edlaine.repository.DocumentRepository;
+import com.tcc.edlaine.repository.FileVersionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BatchUploadServiceTest extends EmbeddedMongoTest {
+
+    @Autowired
+    private FileStorageService fileStorageService;
+    @Autowired
+    private DocumentRepository documentRepository;
+    @Autowired
+    private FileVersionRepository fileVersionRepository;
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private FileMetrics fileMetrics;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Entradas inválidas (soltas ou dentro do ZIP) falham sozinhas; as demais viram documentos
+    @Test
+    void reportsInvalidEntriesAndStoresTheRest() throws Exception {
+        UserEntity user = createUser(PermissionLevel.USER);
+        MockMultipartFile zip = new MockMultipartFile("files", "lote.zip", "application/zip", zip(Map.of(
+                "pasta/planilha.csv", "a;b;c",
+                "leia-me.txt", "texto")));
+
+        String body = mockMvc.perform(multipart("/files/upload-batch")
+                        .file(file("nota.pdf", "nota"))
+                        .file(file("programa.exe", "binário"))
+                        .file(zip)
+                        .param("type", "PUBLIC")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(user)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Map<String, JsonNode> items = new HashMap<>();
+        objectMapper.readTree(body).forEach(item -> items.put(item.get("fileName").asText(), item));
+        assertEquals(4, items.size());
+        assertTrue(items.get("nota.pdf").get("success").asBoolean());
+        assertTrue(items.get("planilha.csv").get("success").asBoolean());
+        assertFalse(items.get("programa.exe").get("success").asBoolean());
+        assertFalse(items.get("leia-me.txt").get("success").asBoolean());
+
+        List<String> stored = documentRepository.findAll().stream().map(DocumentEntity::getFilename).sorted().toList();
+        assertEquals(List.of("nota.pdf", "planilha.csv"), stored);
+        assertEquals(2, fileVersionRepository.count());
+    }
+
+    // Lote acima do limite é recusado inteiro: os blobs já enviados ao pool são liberados
+    @Test
+    void refusesTheWholeBatchAboveMaxEntriesAndReleasesStoredBlobs() {
+        UserEntity user = createUser(PermissionLevel.USER);
+        authenticate(user);
+        BatchUploadService service = batchUploadService(documentRepository, 2);
+        try {
+            List<MultipartFile> files = List.of(file("a.pdf", "a"), file("b.pdf", "b"), file("c.pdf", "c"));
+
+            assertThrows(FileUnprocessableEntity.class, () -> service.uploadFiles(files, "PUBLIC"));
+        } finally {
+            service.shutdown();
+        }
+
+        assertEquals(0, documentRepository.count());
+        assertNothingStored();
+    }
+
+    // Falha no insert em lote: versões já gravadas são apagadas e cada blob volta a ter uma referência a menos
+    @Test
+    void rollsBackVersionsAndBlobsWhenTheDocumentInsertFails() {
+        UserEntity user = createUser(PermissionLevel.USER);
+        authenticate(user);
+        DocumentRepository failingRepository = mock(DocumentRepository.class);
+        when(failingRepository.insert(anyList())).thenThrow(new DataIntegrityViolationException("insert failed"));
+        BatchUploadService service = batchUploadService(failingRepository, 10);
+        try {
+            List<MultipartFile> files = List.of(file("a.pdf", "a"), file("b.pdf", "b"));
+
+            assertThrows(RuntimeException.class, () -> service.uploadFiles(files, "PUBLIC"));
+        } finally {
+            service.shutdown();
+        }
+
+        assertEquals(0, fileVersionRepository.count());
+        assertNothingStored();
+    }
+
+    // Insert ordenado que falha no meio: os documentos já gravados também são removidos
+    @Test
+    void removesTheDocumentsInsertedBeforeAPartialFailure() {
+        UserEntity user = createUser(PermissionLevel.USER);
+        authenticate(user);
+        DocumentRepository partialRepository = mock(DocumentRepository.class, delegatesTo(documentRepository));
+        doAnswer(invocation -> {
+            List<DocumentEntity> documents = new ArrayList<>(invocation.getArgument(0));
+            documents.add(1, documents.get(1)); // _id repetido: grava o primeiro e o segundo e falha no terceiro
+            return documentRepository.insert(documents);
+        }).when(partialRepository).insert(anyList());
+        BatchUploadService service = batchUploadService(partialRepository, 10);
+        try {
+            List<MultipartFile> files = List.of(file("a.pdf", "a"), file("b.pdf", "b"), file("c.pdf", "c"));
+
+            assertThrows(RuntimeException.class, () -> service.uploadFiles(files, "PUBLIC"));
+        } finally {
+            service.shutdown();
+        }
+
+        assertEquals(0, documentRepository.count());
+        assertEquals(0, fileVersionRepository.count());
+        assertNothingStored();
+    }
+
+    // Entrada de ZIP maior que o limite por arquivo falha sozinha, como um arquivo multipart grande demais
+    @Test
+    void rejectsOnlyTheZipEntryAboveTheEntrySize() throws IOException {
+        UserEntity user = createUser(PermissionLevel.USER);
+        authenticate(user);
+        BatchUploadService service = batchUploadService(documentRepository, 10, DataSize.ofBytes(8), DataSize.ofKilobytes(1));
+        List<BatchUploadItem> items;
+        try {
+            MockMultipartFile zip = new MockMultipartFile("files", "lote.zip", "application/zip", zip(Map.of(
+                    "grande.pdf", "conteúdo acima do limite",
+                    "pequeno.pdf", "nota")));
+
+            items = service.uploadFiles(List.of(zip), "PUBLIC").getBody();
+        } finally {
+            service.shutdown();
+        }
+
+        Map<String, Boolean> results = new HashMap<>();
+        items.forEach(item -> results.put(item.getFileName(), item.isSuccess()));
+        assertEquals(Map.of("grande.pdf", false, "pequeno.pdf", true), results);
+        assertEquals(List.of("pequeno.pdf"), documentRepository.findAll().stream().map(DocumentEntity::getFilename).toList());
+    }
+
+    // ZIP que expande além do total recusa o lote inteiro, inclusive os arquivos já gravados
+    @Test
+    void refusesTheWholeBatchAboveTheTotalUncompressedSize() throws IOException {
+        UserEntity user = createUser(PermissionLevel.USER);
+        authenticate(user);
+        BatchUploadService service = batchUploadService(documentRepository, 10, DataSize.ofBytes(16), DataSize.ofBytes(24));
+        try {
+            MockMultipartFile zip = new MockMultipartFile("files", "lote.zip", "application/zip", zip(Map.of(
+                    "a.pdf", "0123456789",
+                    "b.pdf", "abcdefghij",
+                    "c.pdf", "ABCDEFGHIJ")));
+            List<MultipartFile> files = List.of(file("nota.pdf", "nota"), zip);
+
+            assertThrows(FileUnprocessableEntity.class, () -> service.uploadFiles(files, "PUBLIC"));
+        } finally {
+            service.shutdown();
+        }
+
+        assertEquals(0, documentRepository.count());
+        assertNothingStored();
+    }
+
+    private void assertNothingStored() {
+        assertEquals(0, mongoTemplate.getCollection("blobs").countDocuments());
+        assertEquals(0, mongoTemplate.getCollection("fs.files").countDocuments());
+    }
+
+    private BatchUploadService batchUploadService(DocumentRepository repository, int maxEntries) {
+        return batchUploadService(repository, maxEntries, DataSize.ofMegabytes(1), DataSize.ofMegabytes(10));
+    }
+
+    private BatchUploadService batchUploadService(DocumentRepository repository, int maxEntries, DataSize maxEntrySize, DataSize maxTotalSize) {
+        return new BatchUploadService(fileStorageService, repository, fileVersionRepository, authService, fileMetrics,
+                eventPublisher, new SimpleMeterRegistry(), 2, maxEntries, maxEntrySize, maxTotalSize);
+    }
+
+    private static MockMultipartFile file(String fileName, String content) {
+        return new MockMultipartFile("files", fileName, "application/octet-stream", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] zip(Map<String, String> entries) throws IOException {
+        ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(zipped)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return zipped.toByteArray();
+    }
+}
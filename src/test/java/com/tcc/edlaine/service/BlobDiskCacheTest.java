@@ -0,0 +1,226 @@
+package com.tcc.edlaine.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class BlobDiskCacheTest {
+
+    private static final byte[] CONTENT = "conteúdo do blob".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path tempDir;
+
+    private Path directory;
+    private BlobDiskCache cache;
+
+    @BeforeEach
+    void createCache() throws IOException {
+        directory = tempDir.resolve("blobs");
+        cache = cache(DataSize.ofKilobytes(1), DataSize.ofKilobytes(1));
+    }
+
+    @AfterEach
+    void shutdownCache() throws IOException {
+        cache.shutdown();
+    }
+
+    @Test
+    void cachesABlobReadToTheEnd() throws IOException {
+        BlobStore.BlobStat stat = stat(CONTENT.length);
+
+        assertNull(cache.get(stat.blobId()));
+        try (InputStream inputStream = cache.fill(stat, new ByteArrayInputStream(CONTENT))) {
+            assertArrayEquals(CONTENT, inputStream.readAllBytes());
+        }
+
+        BlobDiskCache.CachedBlob cached = cache.get(stat.blobId());
+        assertNotNull(cached);
+        assertEquals(CONTENT.length, cached.length());
+        assertEquals(stat.lastModified(), cached.lastModified());
+        try (InputStream inputStream = cache.open(cached)) {
+            assertArrayEquals(CONTENT, inputStream.readAllBytes());
+        }
+        assertEquals(1, files().length); // Nenhum .part sobrando
+    }
+
+    // Requisição com Range pula o começo: a cópia ficaria com buracos
+    @Test
+    void abandonsTheFillWhenTheReaderSkips() throws IOException {
+        BlobStore.BlobStat stat = stat(CONTENT.length);
+
+        try (InputStream inputStream = cache.fill(stat, new ByteArrayInputStream(CONTENT))) {
+            inputStream.skip(4);
+            inputStream.readAllBytes();
+        }
+
+        assertNull(cache.get(stat.blobId()));
+        assertEquals(0, files().length);
+    }
+
+    // Cliente desconectou no meio do download
+    @Test
+    void discardsAPartialRead() throws IOException {
+        BlobStore.BlobStat stat = stat(CONTENT.length);
+
+        try (InputStream inputStream = cache.fill(stat, new ByteArrayInputStream(CONTENT))) {
+            inputStream.read(new byte[4]);
+        }
+
+        assertNull(cache.get(stat.blobId()));
+        assertEquals(0, files().length);
+    }
+
+    @Test
+    void passesThroughBlobsLargerThanTheFileLimit() throws IOException {
+        cache.shutdown();
+        cache = cache(DataSize.ofKilobytes(1), DataSize.ofBytes(CONTENT.length - 1));
+        BlobStore.BlobStat stat = stat(CONTENT.length);
+        InputStream source = new ByteArrayInputStream(CONTENT);
+
+        assertSame(source, cache.fill(stat, source));
+    }
+
+    // Dois downloads simultâneos do mesmo blob: só o primeiro grava a cópia
+    @Test
+    void leavesTheSecondConcurrentFillUncached() throws IOException {
+        BlobStore.BlobStat stat = stat(CONTENT.length);
+
+        try (InputStream first = cache.fill(stat, new ByteArrayInputStream(CONTENT))) {
+            InputStream source = new ByteArrayInputStream(CONTENT);
+            assertSame(source, cache.fill(stat, source));
+            first.readAllBytes();
+        }
+
+        assertNotNull(cache.get(stat.blobId()));
+    }
+
+    // A remoção do Caffeine é assíncrona: espera o listener apagar o arquivo
+    @Test
+    void evictsBlobsAboveTheMaximumSizeAndDeletesTheirFiles() throws Exception {
+        cache.shutdown();
+        cache = cache(DataSize.ofBytes(CONTENT.length + 4), DataSize.ofKilobytes(1));
+        BlobStore.BlobStat first = stat(CONTENT.length);
+        BlobStore.BlobStat second = stat(CONTENT.length);
+
+        fill(first);
+        fill(second);
+
+        awaitUntil(() -> files().length == 1
+                && (cache.get(first.blobId()) == null) != (cache.get(second.blobId()) == null));
+    }
+
+    @Test
+    void invalidateRemovesTheEntryAndItsFile() throws Exception {
+        BlobStore.BlobStat stat = stat(CONTENT.length);
+        fill(stat);
+        Path path = cache.get(stat.blobId()).path();
+
+        cache.invalidate(stat.blobId());
+
+        assertNull(cache.get(stat.blobId()));
+        awaitUntil(() -> !Files.exists(path));
+    }
+
+    // deleteFile durante o preenchimento: o close não devolve ao cache o blob já apagado
+    @Test
+    void dropsAFillInvalidatedWhileInProgress() throws IOException {
+        BlobStore.BlobStat stat = stat(CONTENT.length);
+
+        try (InputStream inputStream = cache.fill(stat, new ByteArrayInputStream(CONTENT))) {
+            inputStream.read(new byte[4]);
+            cache.invalidate(stat.blobId());
+            inputStream.readAllBytes();
+        }
+
+        assertNull(cache.get(stat.blobId()));
+        assertEquals(0, files().length);
+    }
+
+    // O download escolheu a cópia em disco, mas ela foi removida antes de o corpo ser escrito
+    @Test
+    void fallsBackToTheBackendWhenTheCachedFileIsGoneBeforeTheBodyIsRead() throws Exception {
+        FileSystemBlobStore store = new FileSystemBlobStore(tempDir.resolve("storage"));
+        FileStorageService fileStorageService = new FileStorageService(List.of(store), FileSystemBlobStore.NAME,
+                mock(MongoTemplate.class), new FileMetrics(new SimpleMeterRegistry()), cache);
+        String fileId = new ObjectId().toHexString();
+        store.save(fileId, "nota.pdf", new ByteArrayInputStream(CONTENT));
+        fill(store.stat(fileId).orElseThrow());
+
+        Resource resource = fileStorageService.getFile(fileId);
+        assertInstanceOf(CachedBlobResource.class, resource);
+        Path path = cache.get(fileId).path();
+        cache.invalidate(fileId);
+        awaitUntil(() -> !Files.exists(path));
+
+        try (InputStream inputStream = resource.getInputStream()) {
+            assertArrayEquals(CONTENT, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    void staysOutOfTheWayWhenDisabled() throws IOException {
+        cache.shutdown();
+        cache = new BlobDiskCache(new SimpleMeterRegistry(), false, directory, DataSize.ofKilobytes(1), DataSize.ofKilobytes(1));
+        InputStream source = new ByteArrayInputStream(CONTENT);
+
+        assertSame(source, cache.fill(stat(CONTENT.length), source));
+        assertFalse(Files.exists(directory));
+    }
+
+    private BlobDiskCache cache(DataSize maxSize, DataSize maxFileSize) throws IOException {
+        return new BlobDiskCache(new SimpleMeterRegistry(), true, directory, maxSize, maxFileSize);
+    }
+
+    private void fill(BlobStore.BlobStat stat) throws IOException {
+        try (InputStream inputStream = cache.fill(stat, new ByteArrayInputStream(CONTENT))) {
+            inputStream.readAllBytes();
+        }
+    }
+
+    private Path[] files() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toArray(Path[]::new);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static BlobStore.BlobStat stat(long length) {
+        return new BlobStore.BlobStat(new ObjectId().toHexString(), length, System.currentTimeMillis());
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 5s");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.tcc.edlaine.service;
+
+import com.tcc.edlaine.EmbeddedMongoTest;
+import com.tcc.edlaine.domain.dto.StoredFile;
+import com.tcc.edlaine.domain.entities.DocumentContent;
+import com.tcc.edlaine.domain.entities.DocumentEntity;
+import com.tcc.edlaine.domain.entities.FileVersion;
+import com.tcc.edlaine.domain.enums.DocumentType;
+import com.tcc.edlaine.domain.events.DocumentVersionStored;
+import com.tcc.edlaine.repository.DocumentContentRepository;
+import com.tcc.edlaine.repository.DocumentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DocumentContentIndexerTest extends EmbeddedMongoTest {
+
+    @Autowired
+    private FileStorageService fileStorageService;
+    @Autowired
+    private DocumentTextExtractor documentTextExtractor;
+    @Autowired
+    private DocumentRepository documentRepository;
+    @Autowired
+    private DocumentContentRepository documentContentRepository;
+
+    @Test
+    void indexesTheTextOfTheStoredVersion() throws IOException {
+        DocumentVersionStored event = store("planilha.csv", "fornecedor;valor");
+        DocumentContentIndexer indexer = new DocumentContentIndexer(mongoTemplate, fileStorageService, documentTextExtractor, DataSize.ofMegabytes(1));
+
+        indexer.onVersionStored(event);
+
+        DocumentContent content = documentContentRepository.findById(event.document().getId()).orElseThrow();
+        assertEquals("planilha.csv", content.getFilename());
+        assertTrue(content.getText().contains("fornecedor"));
+    }
+
+    // deleteDocumentById roda enquanto o texto é extraído: o upsert não pode deixar o documento na busca
+    @Test
+    void discardsTheIndexOfADocumentDeletedDuringExtraction() throws IOException {
+        DocumentVersionStored event = store("planilha.csv", "fornecedor;valor");
+        String documentId = event.document().getId();
+        DocumentTextExtractor slowExtractor = mock(DocumentTextExtractor.class);
+        when(slowExtractor.supports(anyString())).thenReturn(true);
+        when(slowExtractor.extract(anyString(), any())).thenAnswer(invocation -> {
+            documentRepository.deleteById(documentId);
+            documentContentRepository.deleteById(documentId);
+            return "fornecedor valor";
+        });
+        DocumentContentIndexer indexer = new DocumentContentIndexer(mongoTemplate, fileStorageService, slowExtractor, DataSize.ofMegabytes(1));
+
+        indexer.onVersionStored(event);
+
+        assertFalse(documentContentRepository.existsById(documentId));
+    }
+
+    private DocumentVersionStored store(String fileName, String content) throws IOException {
+        StoredFile storedFile = fileStorageService.saveFile(fileName, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        DocumentEntity document = new DocumentEntity(fileName, "test.owner@gmail.com", DocumentType.PUBLIC.name());
+        FileVersion version = document.addVersion(storedFile.getFileId(), fileName, LocalDateTime.now(), storedFile.getContentHash());
+        documentRepository.insert(document);
+        return new DocumentVersionStored(document, version);
+    }
+}
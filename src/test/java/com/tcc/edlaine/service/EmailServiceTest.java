@@ -0,0 +1,63 @@
+package com.tcc.edlaine.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.tcc.edlaine.domain.entities.SharedRecord;
+import com.tcc.edlaine.domain.enums.PermissionLevel;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Test
+    void sendsShareNotificationsBatchToLocalSmtp() throws Exception {
+        EmailService emailService = new EmailService(mailSender(ServerSetupTest.SMTP.getPort()));
+
+        Map<String, Exception> failures = emailService.sendShareNotifications(List.of(
+                sharedRecord("1", "counter@gmail.com", "nota-fiscal.pdf"),
+                sharedRecord("2", "user@gmail.com", "planilha.xlsx")
+        ));
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertTrue(failures.isEmpty());
+        assertEquals(2, received.length);
+        assertEquals("Compartilhamento de Documento", received[0].getSubject());
+    }
+
+    @Test
+    void reportsEveryRecordAsFailedWhenSmtpIsUnavailable() {
+        EmailService emailService = new EmailService(mailSender(ServerSetupTest.SMTP.getPort() + 1));
+
+        Map<String, Exception> failures = emailService.sendShareNotifications(List.of(
+                sharedRecord("1", "counter@gmail.com", "nota-fiscal.pdf"),
+                sharedRecord("2", "user@gmail.com", "planilha.xlsx")
+        ));
+
+        assertEquals(2, failures.size());
+    }
+
+    private static JavaMailSenderImpl mailSender(int port) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        return mailSender;
+    }
+
+    private static SharedRecord sharedRecord(String id, String email, String fileName) {
+        SharedRecord sharedRecord = new SharedRecord("document", fileName, email, id, PermissionLevel.GUEST, LocalDateTime.now(), "admin@gmail.com");
+        sharedRecord.setId(id);
+        return sharedRecord;
+    }
+}
@@ -0,0 +1,126 @@
+package com.tcc.edlaine.service;
+
+import com.tcc.edlaine.EmbeddedMongoTest;
+import com.tcc.edlaine.domain.dto.StoredFile;
+import com.tcc.edlaine.domain.entities.DocumentEntity;
+import com.tcc.edlaine.domain.entities.UserEntity;
+import com.tcc.edlaine.domain.enums.DocumentType;
+import com.tcc.edlaine.domain.enums.PermissionLevel;
+import com.tcc.edlaine.repository.DocumentRepository;
+import com.tcc.edlaine.repository.FileVersionRepository;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class FileServiceZipTest extends EmbeddedMongoTest {
+
+    @Autowired
+    private FileService fileService;
+    @Autowired
+    private FileStorageService fileStorageService;
+    @Autowired
+    private DocumentRepository documentRepository;
+    @Autowired
+    private FileVersionRepository fileVersionRepository;
+
+    @Test
+    void streamsTheLatestVersionsInTheRequestedOrderWithUniqueNames() throws Exception {
+        UserEntity user = createUser(PermissionLevel.USER);
+        String planilha = createDocument(user, "planilha.csv", DocumentType.PUBLIC, "a;b;c");
+        String nota = createDocument(user, "nota.pdf", DocumentType.PUBLIC, "primeira nota");
+        String outraNota = createDocument(user, "nota.pdf", DocumentType.PUBLIC, "segunda nota");
+        authenticate(user);
+
+        ResponseEntity<StreamingResponseBody> response = fileService.downloadZip(List.of(planilha, nota, outraNota), null, null, null);
+
+        Map<String, String> entries = unzip(response.getBody());
+        assertEquals(List.of("planilha.csv", "nota.pdf", "nota (1).pdf"), List.copyOf(entries.keySet()));
+        assertEquals("a;b;c", entries.get("planilha.csv"));
+        assertEquals("primeira nota", entries.get("nota.pdf"));
+        assertEquals("segunda nota", entries.get("nota (1).pdf"));
+    }
+
+    // Permissão validada antes do primeiro byte: a resposta ainda pode sair com o status de erro
+    @Test
+    void refusesTheWholeZipWhenOneDocumentIsFinancialForAnUnprivilegedUser() throws Exception {
+        UserEntity user = createUser(PermissionLevel.USER);
+        String publico = createDocument(user, "publico.pdf", DocumentType.PUBLIC, "público");
+        String fiscal = createDocument(user, "fiscal.pdf", DocumentType.FINANCIAL, "fiscal");
+
+        mockMvc.perform(get("/files/download-zip").param("ids", publico, fiscal)
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(user)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void answersNotFoundForAMissingDocument() throws Exception {
+        UserEntity user = createUser(PermissionLevel.USER);
+        String publico = createDocument(user, "publico.pdf", DocumentType.PUBLIC, "público");
+
+        mockMvc.perform(get("/files/download-zip").param("ids", publico, new ObjectId().toHexString())
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(user)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void answersNotFoundWhenABlobIsMissingFromTheStorage() throws Exception {
+        UserEntity user = createUser(PermissionLevel.USER);
+        String publico = createDocument(user, "publico.pdf", DocumentType.PUBLIC, "público");
+        DocumentEntity orphan = new DocumentEntity("sem-blob.pdf", user.getEmail(), DocumentType.PUBLIC.name());
+        fileVersionRepository.insert(orphan.addVersion(new ObjectId().toHexString(), "sem-blob.pdf", LocalDateTime.now(), null));
+        documentRepository.insert(orphan);
+
+        mockMvc.perform(get("/files/download-zip").param("ids", publico, orphan.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(user)))
+                .andExpect(status().isNotFound());
+    }
+
+    // Documento sem versão publicada (histórico ainda não migrado)
+    @Test
+    void answersNotFoundForADocumentWithoutVersions() throws Exception {
+        UserEntity user = createUser(PermissionLevel.USER);
+        DocumentEntity empty = documentRepository.insert(new DocumentEntity("vazio.pdf", user.getEmail(), DocumentType.PUBLIC.name()));
+
+        mockMvc.perform(get("/files/download-zip").param("ids", empty.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken(user)))
+                .andExpect(status().isNotFound());
+    }
+
+    private String createDocument(UserEntity owner, String fileName, DocumentType type, String content) throws IOException {
+        StoredFile storedFile = fileStorageService.saveFile(fileName, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        DocumentEntity document = new DocumentEntity(fileName, owner.getEmail(), type.name());
+        fileVersionRepository.insert(document.addVersion(storedFile.getFileId(), fileName, LocalDateTime.now(), storedFile.getContentHash()));
+        return documentRepository.insert(document).getId();
+    }
+
+    private static Map<String, String> unzip(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+        body.writeTo(zipped);
+
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(zipped.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,117 @@
+package com.tcc.edlaine.service;
+
+import com.tcc.edlaine.EmbeddedMongoTest;
+import com.tcc.edlaine.domain.dto.StoredFile;
+import com.tcc.edlaine.domain.entities.BlobEntity;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FileStorageServiceTest extends EmbeddedMongoTest {
+
+    private static final byte[] CONTENT = "conteúdo do comprovante".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Test
+    void reusesTheStoredBlobForIdenticalContent() throws Exception {
+        StoredFile first = fileStorageService.saveFile("nota-fiscal.pdf", new ByteArrayInputStream(CONTENT));
+        StoredFile second = fileStorageService.saveFile("copia.pdf", new ByteArrayInputStream(CONTENT));
+
+        assertEquals(first.getFileId(), second.getFileId());
+        assertEquals(sha256(CONTENT), second.getContentHash());
+        assertEquals(2, mongoTemplate.findById(first.getFileId(), BlobEntity.class).getRefCount());
+        assertEquals(1, storedBlobCount()); // O blob gravado pelo segundo upload foi descartado
+    }
+
+    @Test
+    void deletesTheBlobOnlyWhenTheLastReferenceIsReleased() throws Exception {
+        StoredFile stored = fileStorageService.saveFile("nota-fiscal.pdf", new ByteArrayInputStream(CONTENT));
+        fileStorageService.saveFile("copia.pdf", new ByteArrayInputStream(CONTENT));
+
+        fileStorageService.releaseFile(stored.getFileId());
+        assertEquals(1, mongoTemplate.findById(stored.getFileId(), BlobEntity.class).getRefCount());
+        assertNotNull(fileStorageService.getFile(stored.getFileId()));
+
+        fileStorageService.releaseFile(stored.getFileId());
+        assertNull(mongoTemplate.findById(stored.getFileId(), BlobEntity.class));
+        assertNull(fileStorageService.getFile(stored.getFileId()));
+        assertEquals(0, storedBlobCount());
+    }
+
+    // Inserts simultâneos do mesmo hash colidem no índice único; os perdedores repetem e reaproveitam o vencedor
+    @Test
+    void concurrentUploadsOfTheSameContentConvergeOnOneBlob() throws Exception {
+        int uploads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(uploads);
+        try {
+            List<Callable<StoredFile>> tasks = new ArrayList<>();
+            for (int i = 0; i < uploads; i++) {
+                String fileName = "upload-" + i + ".pdf";
+                tasks.add(() -> fileStorageService.saveFile(fileName, new ByteArrayInputStream(CONTENT)));
+            }
+
+            Set<String> fileIds = executor.invokeAll(tasks).stream()
+                    .map(FileStorageServiceTest::getQuietly)
+                    .map(StoredFile::getFileId)
+                    .collect(Collectors.toSet());
+
+            assertEquals(1, fileIds.size());
+            assertEquals(uploads, mongoTemplate.findById(fileIds.iterator().next(), BlobEntity.class).getRefCount());
+            assertEquals(1, storedBlobCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Registro com refCount 0 ainda não removido: não pode ser reaproveitado e bloqueia o insert até as tentativas acabarem
+    @Test
+    void givesUpAndDiscardsTheNewBlobWhileAReleasedBlobHoldsTheHash() {
+        BlobEntity released = new BlobEntity(new ObjectId().toHexString(), sha256(CONTENT), CONTENT.length);
+        released.setRefCount(0);
+        mongoTemplate.insert(released);
+
+        assertThrows(IllegalStateException.class,
+                () -> fileStorageService.saveFile("nota-fiscal.pdf", new ByteArrayInputStream(CONTENT)));
+        assertEquals(0, storedBlobCount());
+    }
+
+    private long storedBlobCount() {
+        return mongoTemplate.getCollection("fs.files").countDocuments();
+    }
+
+    private static StoredFile getQuietly(Future<StoredFile> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.tcc.edlaine.service;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileSystemBlobStoreTest {
+
+    private static final byte[] CONTENT = "conteúdo do blob".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path root;
+
+    private FileSystemBlobStore store;
+
+    @BeforeEach
+    void createStore() {
+        store = new FileSystemBlobStore(root);
+    }
+
+    @Test
+    void savesAndReadsABlobFromAnOffset() throws IOException {
+        String blobId = new ObjectId().toHexString();
+
+        assertEquals(CONTENT.length, store.save(blobId, "nota.pdf", new ByteArrayInputStream(CONTENT)));
+
+        BlobStore.BlobStat stat = store.stat(blobId).orElseThrow();
+        assertEquals(CONTENT.length, stat.length());
+        try (InputStream inputStream = store.open(blobId, 0)) {
+            assertArrayEquals(CONTENT, inputStream.readAllBytes());
+        }
+        // Range: a leitura começa no offset sem ler o início
+        try (InputStream inputStream = store.open(blobId, 4)) {
+            assertArrayEquals(Arrays.copyOfRange(CONTENT, 4, CONTENT.length), inputStream.readAllBytes());
+        }
+    }
+
+    // Gravação interrompida: nem o id nem o .tmp ficam no disco
+    @Test
+    void leavesNothingBehindWhenTheUploadFails() throws IOException {
+        String blobId = new ObjectId().toHexString();
+        InputStream failing = new InputStream() {
+            private int read;
+
+            @Override
+            public int read() throws IOException {
+                if (read++ >= CONTENT.length) {
+                    throw new IOException("connection reset");
+                }
+                return 'a';
+            }
+        };
+
+        assertThrows(IOException.class, () -> store.save(blobId, "nota.pdf", failing));
+
+        assertTrue(store.stat(blobId).isEmpty());
+        assertEquals(List.of(), regularFiles());
+    }
+
+    // Regravar o mesmo id troca o arquivo inteiro de uma vez
+    @Test
+    void replacesAnExistingBlob() throws IOException {
+        String blobId = new ObjectId().toHexString();
+        store.save(blobId, "nota.pdf", new ByteArrayInputStream("antigo".getBytes(StandardCharsets.UTF_8)));
+
+        store.save(blobId, "nota.pdf", new ByteArrayInputStream(CONTENT));
+
+        try (InputStream inputStream = store.open(blobId, 0)) {
+            assertArrayEquals(CONTENT, inputStream.readAllBytes());
+        }
+        assertEquals(1, regularFiles().size());
+    }
+
+    @Test
+    void rejectsIdsThatAreNotObjectIds() {
+        assertThrows(IllegalArgumentException.class,
+                () -> store.save("../../etc/passwd", "nota.pdf", new ByteArrayInputStream(CONTENT)));
+        assertThrows(IllegalArgumentException.class, () -> store.open("../segredo", 0));
+    }
+
+    @Test
+    void listsStoredIdsWithoutTemporaryFiles() throws IOException {
+        String first = new ObjectId().toHexString();
+        String second = new ObjectId().toHexString();
+        store.save(first, "a.pdf", new ByteArrayInputStream(CONTENT));
+        store.save(second, "b.pdf", new ByteArrayInputStream(CONTENT));
+        Files.createFile(root.resolve(first + "123.tmp")); // Gravação em andamento
+
+        try (Stream<String> ids = store.listIds()) {
+            assertEquals(List.of(first, second), ids.sorted().toList());
+        }
+    }
+
+    @Test
+    void deleteIsIdempotent() throws IOException {
+        String blobId = new ObjectId().toHexString();
+        store.save(blobId, "nota.pdf", new ByteArrayInputStream(CONTENT));
+
+        store.delete(blobId);
+        store.delete(blobId);
+        store.delete(new ObjectId().toHexString());
+
+        assertTrue(store.stat(blobId).isEmpty());
+    }
+
+    private List<Path> regularFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.tcc.edlaine.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.tcc.edlaine.EmbeddedMongoTest;
+import com.tcc.edlaine.crosscutting.properties.notification.NotificationProperties;
+import com.tcc.edlaine.domain.entities.SharedRecord;
+import com.tcc.edlaine.domain.enums.NotificationStatus;
+import com.tcc.edlaine.domain.enums.PermissionLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+class ShareNotificationDispatcherTest extends EmbeddedMongoTest {
+
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration LEASE = Duration.ofMinutes(2);
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Test
+    void sendsDueRecordsInBatchesOfTheConfiguredSize() {
+        ShareNotificationDispatcher dispatcher = dispatcher(ServerSetupTest.SMTP.getPort());
+        SharedRecord first = insert(LocalDateTime.now().minusMinutes(3));
+        SharedRecord second = insert(LocalDateTime.now().minusMinutes(2));
+        SharedRecord third = insert(LocalDateTime.now().minusMinutes(1));
+
+        dispatcher.dispatchPending();
+        assertEquals(2, greenMail.getReceivedMessages().length); // Os dois mais antigos primeiro
+        assertEquals(NotificationStatus.SENT, reload(first).getNotificationStatus());
+        assertEquals(NotificationStatus.SENT, reload(second).getNotificationStatus());
+        assertEquals(NotificationStatus.PENDING, reload(third).getNotificationStatus());
+
+        dispatcher.dispatchPending();
+        SharedRecord sent = reload(third);
+        assertEquals(3, greenMail.getReceivedMessages().length);
+        assertEquals(NotificationStatus.SENT, sent.getNotificationStatus());
+        assertEquals(1, sent.getNotificationAttempts());
+        assertNotNull(sent.getNotifiedAt());
+        assertNull(sent.getNextNotificationAt());
+    }
+
+    // Reserva ativa de outro nó é respeitada; reserva vencida (nó que caiu no meio do lote) é retomada
+    @Test
+    void claimsOnlyDueRecordsAndExpiredLeases() {
+        ShareNotificationDispatcher dispatcher = dispatcher(ServerSetupTest.SMTP.getPort());
+        SharedRecord notYetDue = insert(LocalDateTime.now().plusMinutes(5));
+        SharedRecord leased = insert(LocalDateTime.now().minusMinutes(1));
+        SharedRecord expiredLease = insert(LocalDateTime.now().minusMinutes(1));
+        mark(leased, NotificationStatus.SENDING, LocalDateTime.now().plus(LEASE));
+        mark(expiredLease, NotificationStatus.SENDING, LocalDateTime.now().minusSeconds(1));
+
+        dispatcher.dispatchPending();
+
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(NotificationStatus.PENDING, reload(notYetDue).getNotificationStatus());
+        assertEquals(NotificationStatus.SENDING, reload(leased).getNotificationStatus());
+        assertEquals(NotificationStatus.SENT, reload(expiredLease).getNotificationStatus());
+    }
+
+    @Test
+    void retriesWithExponentialBackoffAndGivesUpAfterMaxAttempts() {
+        ShareNotificationDispatcher dispatcher = dispatcher(ServerSetupTest.SMTP.getPort() + 1);
+        SharedRecord record = insert(LocalDateTime.now().minusMinutes(1));
+
+        assertBackoff(dispatcher, record, 1, INITIAL_BACKOFF);
+        makeDue(record);
+        assertBackoff(dispatcher, record, 2, INITIAL_BACKOFF.multipliedBy(2));
+
+        makeDue(record);
+        dispatcher.dispatchPending();
+        SharedRecord failed = reload(record);
+        assertEquals(NotificationStatus.FAILED, failed.getNotificationStatus());
+        assertEquals(3, failed.getNotificationAttempts());
+        assertNull(failed.getNextNotificationAt());
+        assertNotNull(failed.getLastNotificationError());
+    }
+
+    private void assertBackoff(ShareNotificationDispatcher dispatcher, SharedRecord record, int attempts, Duration backoff) {
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatchPending();
+        LocalDateTime after = LocalDateTime.now();
+
+        SharedRecord retried = reload(record);
+        assertEquals(NotificationStatus.PENDING, retried.getNotificationStatus());
+        assertEquals(attempts, retried.getNotificationAttempts());
+        assertNotNull(retried.getLastNotificationError());
+        // O Mongo guarda milissegundos: tolera o truncamento
+        assertFalse(retried.getNextNotificationAt().isBefore(before.plus(backoff).minusNanos(1_000_000)));
+        assertFalse(retried.getNextNotificationAt().isAfter(after.plus(backoff)));
+    }
+
+    private ShareNotificationDispatcher dispatcher(int smtpPort) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpPort);
+
+        NotificationProperties properties = new NotificationProperties();
+        properties.setBatchSize(2);
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoff(INITIAL_BACKOFF);
+        properties.setMaxBackoff(Duration.ofHours(1));
+        properties.setLease(LEASE);
+        return new ShareNotificationDispatcher(mongoTemplate, new EmailService(mailSender), properties, new SimpleMeterRegistry());
+    }
+
+    private SharedRecord insert(LocalDateTime sharedAt) {
+        return mongoTemplate.insert(new SharedRecord("document", "nota-fiscal.pdf", "counter@gmail.com",
+                UUID.randomUUID().toString(), PermissionLevel.GUEST, sharedAt, "admin@gmail.com"));
+    }
+
+    private void mark(SharedRecord record, NotificationStatus status, LocalDateTime nextNotificationAt) {
+        mongoTemplate.updateFirst(query(where("_id").is(record.getId())),
+                new Update().set("notificationStatus", status).set("nextNotificationAt", nextNotificationAt),
+                SharedRecord.class);
+    }
+
+    private void makeDue(SharedRecord record) {
+        mark(record, NotificationStatus.PENDING, LocalDateTime.now().minusSeconds(1));
+    }
+
+    private SharedRecord reload(SharedRecord record) {
+        return mongoTemplate.findById(record.getId(), SharedRecord.class);
+    }
+}